@@ -0,0 +1,67 @@
+package com.project.bookstore.benchmark;
+
+import com.project.bookstore.dto.book.BookSearchParameters;
+import com.project.bookstore.model.Book;
+import com.project.bookstore.repository.book.BookSpecificationBuilder;
+import com.project.bookstore.repository.book.BookSpecificationProviderManager;
+import com.project.bookstore.repository.book.spec.AuthorSpecificationProvider;
+import com.project.bookstore.repository.book.spec.IsbnSpecificationProvider;
+import com.project.bookstore.repository.book.spec.PriceRangeSpecificationProvider;
+import com.project.bookstore.repository.book.spec.PriceSpecificationProvider;
+import com.project.bookstore.repository.book.spec.TitleSpecificationProvider;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookSpecificationBuilderBenchmark {
+    private BookSpecificationBuilder bookSpecificationBuilder;
+    private BookSearchParameters titleOnly;
+    private BookSearchParameters allParameters;
+
+    @Setup
+    public void setUp() {
+        bookSpecificationBuilder = new BookSpecificationBuilder(
+                new BookSpecificationProviderManager(List.of(
+                        new TitleSpecificationProvider(),
+                        new AuthorSpecificationProvider(),
+                        new PriceSpecificationProvider(),
+                        new PriceRangeSpecificationProvider(),
+                        new IsbnSpecificationProvider())));
+        titleOnly = new BookSearchParameters(
+                new String[]{"Book Title 1"}, null, null, null, null, null);
+        allParameters = new BookSearchParameters(
+                new String[]{"Book Title 1", "Book Title 2"},
+                new String[]{"Author Name 1"},
+                new String[]{"19.99"},
+                new String[]{"978-0-00-000000-1"},
+                new BigDecimal("10.00"),
+                new BigDecimal("50.00"));
+    }
+
+    @Benchmark
+    public Specification<Book> buildTitleOnly() {
+        return bookSpecificationBuilder.build(titleOnly);
+    }
+
+    @Benchmark
+    public Specification<Book> buildAllParameters() {
+        return bookSpecificationBuilder.build(allParameters);
+    }
+}
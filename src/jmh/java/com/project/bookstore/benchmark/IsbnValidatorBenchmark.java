@@ -0,0 +1,38 @@
+package com.project.bookstore.benchmark;
+
+import com.project.bookstore.validation.isbn.IsbnValidator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IsbnValidatorBenchmark {
+    @Param({"978-0-00-000000-1", "9780000000001", "ISBN-13: 978-0-00-000000"})
+    private String isbn;
+
+    private IsbnValidator isbnValidator;
+
+    @Setup
+    public void setUp() {
+        isbnValidator = new IsbnValidator();
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return isbnValidator.isValid(isbn, null);
+    }
+}
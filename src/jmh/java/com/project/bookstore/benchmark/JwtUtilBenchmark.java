@@ -0,0 +1,74 @@
+package com.project.bookstore.benchmark;
+
+import com.project.bookstore.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+    private SecretKey secret;
+    private JwtUtil uncachedJwtUtil;
+    private JwtUtil cachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        Field secretField = JwtUtil.class.getDeclaredField("SECRET");
+        secretField.setAccessible(true);
+        secret = (SecretKey) secretField.get(null);
+        uncachedJwtUtil = new JwtUtil(0);
+        cachedJwtUtil = new JwtUtil(10000);
+        token = cachedJwtUtil.generateToken("bob@example.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedJwtUtil.generateToken("bob@example.com");
+    }
+
+    @Benchmark
+    public String legacyValidateThenGetUsername() {
+        Jws<Claims> claimsJws = Jwts.parser()
+                .verifyWith(secret)
+                .build()
+                .parseSignedClaims(token);
+        if (claimsJws.getPayload().getExpiration() == null) {
+            return null;
+        }
+        return Jwts.parser()
+                .verifyWith(secret)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String parseOnce() {
+        return uncachedJwtUtil.getVerifiedClaims(token).getSubject();
+    }
+
+    @Benchmark
+    public String parseOnceWithVerifiedTokenCache() {
+        return cachedJwtUtil.getVerifiedClaims(token).getSubject();
+    }
+}
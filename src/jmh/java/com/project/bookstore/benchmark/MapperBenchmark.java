@@ -0,0 +1,132 @@
+package com.project.bookstore.benchmark;
+
+import com.project.bookstore.dto.book.BookDto;
+import com.project.bookstore.dto.order.OrderDto;
+import com.project.bookstore.dto.shopping.item.CartItemDto;
+import com.project.bookstore.mapper.BookMapper;
+import com.project.bookstore.mapper.CartItemMapper;
+import com.project.bookstore.mapper.OrderMapper;
+import com.project.bookstore.mapper.impl.BookMapperImpl;
+import com.project.bookstore.mapper.impl.CartItemMapperImpl;
+import com.project.bookstore.mapper.impl.OrderItemMapperImpl;
+import com.project.bookstore.mapper.impl.OrderMapperImpl;
+import com.project.bookstore.model.Book;
+import com.project.bookstore.model.CartItem;
+import com.project.bookstore.model.Category;
+import com.project.bookstore.model.Order;
+import com.project.bookstore.model.OrderItem;
+import com.project.bookstore.model.User;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    private BookMapper bookMapper;
+    private CartItemMapper cartItemMapper;
+    private OrderMapper orderMapper;
+    private Book book;
+
+    @Setup
+    public void setUp() {
+        bookMapper = new BookMapperImpl();
+        cartItemMapper = new CartItemMapperImpl();
+        orderMapper = new OrderMapperImpl(new OrderItemMapperImpl());
+        book = createBook(1L);
+    }
+
+    @Benchmark
+    public BookDto bookToDto() {
+        return bookMapper.toDto(book);
+    }
+
+    @Benchmark
+    public List<CartItemDto> cartItemsToDtos(Items items) {
+        return cartItemMapper.toCartItemDtoList(items.cartItems);
+    }
+
+    @Benchmark
+    public OrderDto orderToDto(Items items) {
+        return orderMapper.toDto(items.order);
+    }
+
+    private static Book createBook(Long id) {
+        Book newBook = new Book(id);
+        newBook.setTitle("Book Title " + id);
+        newBook.setAuthor("Author Name " + id);
+        newBook.setIsbn("978-0-00-000000-1");
+        newBook.setPrice(BigDecimal.valueOf(19.99));
+        newBook.setDescription("Description for Book " + id);
+        newBook.setCoverImage("https://coverimage" + id + ".jpg");
+        newBook.setCategories(new HashSet<>(Set.of(new Category(1L), new Category(2L))));
+        return newBook;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Items {
+        @Param({"1", "20"})
+        private int count;
+
+        private Set<CartItem> cartItems;
+        private Order order;
+
+        @Setup
+        public void setUp() {
+            cartItems = LongStream.rangeClosed(1, count)
+                    .mapToObj(Items::createCartItem)
+                    .collect(Collectors.toSet());
+            order = createOrder();
+        }
+
+        private static CartItem createCartItem(long id) {
+            CartItem cartItem = new CartItem();
+            cartItem.setId(id);
+            cartItem.setBook(createBook(id));
+            cartItem.setQuantity(2);
+            return cartItem;
+        }
+
+        private Order createOrder() {
+            User user = new User();
+            user.setId(1L);
+            Order newOrder = new Order();
+            newOrder.setId(1L);
+            newOrder.setUser(user);
+            newOrder.setStatus(Order.Status.NEW);
+            newOrder.setOrderDate(LocalDateTime.of(2024, 3, 29, 15, 44, 10));
+            newOrder.setTotal(BigDecimal.valueOf(19.99).multiply(BigDecimal.valueOf(count)));
+            newOrder.setShippingAddress("address");
+            for (long id = 1; id <= count; id++) {
+                OrderItem orderItem = new OrderItem();
+                orderItem.setId(id);
+                orderItem.setOrder(newOrder);
+                orderItem.setBook(new Book(id));
+                orderItem.setQuantity(1);
+                orderItem.setPrice(BigDecimal.valueOf(19.99));
+                newOrder.getOrderItems().add(orderItem);
+            }
+            return newOrder;
+        }
+    }
+}
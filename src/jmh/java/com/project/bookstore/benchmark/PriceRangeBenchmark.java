@@ -0,0 +1,150 @@
+package com.project.bookstore.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import liquibase.Contexts;
+import liquibase.Liquibase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * Range query latency over a seeded books table. Needs Docker: the schema is
+ * created by the application's Liquibase changelog inside a MySQL container,
+ * and the same queries run with and without the (is_deleted, price) index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceRangeBenchmark {
+    private static final String DB_IMAGE = "mysql:8";
+    private static final String CHANGELOG = "db/changelog/db.changelog-master.yaml";
+    private static final String PRICE_INDEX = "idx_books_is_deleted_price";
+    private static final String PAGE_QUERY = "SELECT id, title, author, isbn, price, cover_image "
+            + "FROM books %s "
+            + "WHERE is_deleted = FALSE AND price BETWEEN ? AND ? "
+            + "ORDER BY price LIMIT 20";
+    private static final String COUNT_QUERY = "SELECT COUNT(*) FROM books %s "
+            + "WHERE is_deleted = FALSE AND price BETWEEN ? AND ?";
+    private static final String SEED_QUERY = "INSERT INTO books "
+            + "(title, author, isbn, price, description, cover_image) "
+            + "WITH RECURSIVE seq (n) AS ("
+            + "SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?) "
+            + "SELECT CONCAT('Book Title ', n), CONCAT('Author Name ', n % 1000), "
+            + "LPAD(n, 13, '0'), 1 + (n * 7919 % 10000) / 100, "
+            + "NULL, CONCAT('https://coverimage', n, '.jpg') "
+            + "FROM seq";
+
+    @Param("1000000")
+    private int rows;
+    @Param({"10.00", "50.00"})
+    private String rangeWidth;
+
+    private MySQLContainer<?> container;
+    private Connection connection;
+    private PreparedStatement indexedPage;
+    private PreparedStatement fullScanPage;
+    private PreparedStatement indexedCount;
+    private PreparedStatement fullScanCount;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    @Setup
+    public void setUp() throws Exception {
+        container = new MySQLContainer<>(DB_IMAGE);
+        container.start();
+        connection = DriverManager.getConnection(
+                container.getJdbcUrl(), container.getUsername(), container.getPassword());
+        new Liquibase(CHANGELOG, new ClassLoaderResourceAccessor(),
+                new JdbcConnection(connection)).update(new Contexts());
+        seed();
+        minPrice = new BigDecimal("25.00");
+        maxPrice = minPrice.add(new BigDecimal(rangeWidth));
+        String ignoreIndex = "IGNORE INDEX (" + PRICE_INDEX + ")";
+        indexedPage = connection.prepareStatement(PAGE_QUERY.formatted(""));
+        fullScanPage = connection.prepareStatement(PAGE_QUERY.formatted(ignoreIndex));
+        indexedCount = connection.prepareStatement(COUNT_QUERY.formatted(""));
+        fullScanCount = connection.prepareStatement(COUNT_QUERY.formatted(ignoreIndex));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+        container.stop();
+    }
+
+    @Benchmark
+    public long rangePageWithIndex() throws SQLException {
+        return readPage(indexedPage);
+    }
+
+    @Benchmark
+    public long rangePageWithoutIndex() throws SQLException {
+        return readPage(fullScanPage);
+    }
+
+    @Benchmark
+    public long rangeCountWithIndex() throws SQLException {
+        return readCount(indexedCount);
+    }
+
+    @Benchmark
+    public long rangeCountWithoutIndex() throws SQLException {
+        return readCount(fullScanCount);
+    }
+
+    private void seed() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET SESSION cte_max_recursion_depth = " + rows);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(SEED_QUERY)) {
+            statement.setInt(1, rows);
+            statement.executeUpdate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE books");
+        }
+    }
+
+    private long readPage(PreparedStatement statement) throws SQLException {
+        statement.setBigDecimal(1, minPrice);
+        statement.setBigDecimal(2, maxPrice);
+        long sum = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                sum += resultSet.getLong(1);
+            }
+        }
+        return sum;
+    }
+
+    private long readCount(PreparedStatement statement) throws SQLException {
+        statement.setBigDecimal(1, minPrice);
+        statement.setBigDecimal(2, maxPrice);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.bookstore.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Fills the schema created by Liquibase with generated catalog, user and order
+ * history rows. Every user gets the same password, so it is hashed only once.
+ */
+public class DatasetSeeder {
+    public static final String EMAIL_FORMAT = "load%d@example.com";
+    public static final String AUTHOR_PREFIX = "Author Name ";
+    public static final int AUTHORS = 1000;
+    private static final long USER_ROLE_ID = 1L;
+    private static final String SEQUENCE = "WITH RECURSIVE seq (n) AS ("
+            + "SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?) ";
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatasetSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void seed(LoadConfig config, String passwordHash) {
+        int maxRows = Math.max(config.books(), config.users() * config.ordersPerUser());
+        jdbcTemplate.execute("SET SESSION cte_max_recursion_depth = " + maxRows);
+        jdbcTemplate.update("INSERT INTO categories (name, description) "
+                + SEQUENCE
+                + "SELECT CONCAT('Category ', n), 'Description' FROM seq",
+                config.categories());
+        jdbcTemplate.update("INSERT INTO books "
+                + "(title, author, isbn, price, description, cover_image) "
+                + SEQUENCE
+                + "SELECT CONCAT('Book Title ', n), CONCAT('" + AUTHOR_PREFIX + "', n % "
+                + AUTHORS + "), LPAD(n, 13, '0'), 1 + (n * 7919 % 10000) / 100, "
+                + "'Description', CONCAT('https://coverimage', n, '.jpg') "
+                + "FROM seq",
+                config.books());
+        jdbcTemplate.update("INSERT INTO book_category (book_id, category_id) "
+                + "SELECT b.id, c.id FROM books b "
+                + "JOIN categories c ON c.id = b.id % ? + 1",
+                config.categories());
+        jdbcTemplate.update("INSERT INTO users "
+                + "(email, password, first_name, last_name, shipping_address) "
+                + SEQUENCE
+                + "SELECT CONCAT('load', n, '@example.com'), ?, 'First', 'Last', 'Address' "
+                + "FROM seq",
+                config.users(), passwordHash);
+        jdbcTemplate.update("INSERT INTO user_role (user_id, role_id) "
+                + "SELECT u.id, ? FROM users u",
+                USER_ROLE_ID);
+        jdbcTemplate.update("INSERT INTO shopping_carts (user_id) "
+                + "SELECT u.id FROM users u");
+        jdbcTemplate.update("INSERT INTO orders "
+                + "(user_id, status, total, order_date, shipping_address) "
+                + SEQUENCE
+                + "SELECT u.id, 'DELIVERED', 0, "
+                + "TIMESTAMP '2024-01-01 00:00:00' + INTERVAL seq.n HOUR, 'Address' "
+                + "FROM users u JOIN seq ON seq.n <= ?",
+                config.ordersPerUser(), config.ordersPerUser());
+        jdbcTemplate.update("INSERT INTO order_items (order_id, book_id, quantity, price) "
+                + "SELECT o.id, b.id, 1, b.price FROM orders o "
+                + "JOIN books b ON b.id = o.id % ? + 1",
+                config.books());
+        jdbcTemplate.update("UPDATE orders o SET total = ("
+                + "SELECT SUM(oi.price) FROM order_items oi WHERE oi.order_id = o.id)");
+        jdbcTemplate.execute("ANALYZE TABLE categories, books, book_category, users, "
+                + "user_role, shopping_carts, orders, order_items");
+    }
+}
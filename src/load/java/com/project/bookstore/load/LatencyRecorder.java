@@ -0,0 +1,85 @@
+package com.project.bookstore.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps every measured latency per endpoint. Each worker thread owns one
+ * recorder, and the recorders are merged once the run is over, so recording
+ * needs no synchronization.
+ */
+public class LatencyRecorder {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    public void record(String endpoint, long latencyNanos, boolean failed) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(latencyNanos, failed);
+    }
+
+    public void merge(LatencyRecorder other) {
+        other.samples.forEach((endpoint, otherSamples) -> samples
+                .computeIfAbsent(endpoint, key -> new Samples())
+                .addAll(otherSamples));
+    }
+
+    public List<EndpointReport> report(Duration measured) {
+        double seconds = measured.toMillis() / 1000.0;
+        return samples.entrySet().stream()
+                .map(entry -> entry.getValue().toReport(entry.getKey(), seconds))
+                .toList();
+    }
+
+    public record EndpointReport(
+            String endpoint,
+            int requests,
+            int errors,
+            double throughput,
+            double p50Millis,
+            double p99Millis,
+            double maxMillis) {
+    }
+
+    private static class Samples {
+        private long[] latencies = new long[1024];
+        private int size;
+        private int errors;
+
+        private void add(long latencyNanos, boolean failed) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (failed) {
+                errors++;
+            }
+        }
+
+        private void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.latencies[i], false);
+            }
+            errors += other.errors;
+        }
+
+        private EndpointReport toReport(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new EndpointReport(
+                    endpoint,
+                    size,
+                    errors,
+                    size / seconds,
+                    percentile(sorted, 0.50) / NANOS_PER_MILLI,
+                    percentile(sorted, 0.99) / NANOS_PER_MILLI,
+                    sorted[size - 1] / NANOS_PER_MILLI);
+        }
+
+        private long percentile(long[] sorted, double percentile) {
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)];
+        }
+    }
+}
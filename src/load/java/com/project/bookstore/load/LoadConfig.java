@@ -0,0 +1,52 @@
+package com.project.bookstore.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load run, read from {@code load.*} system properties so that
+ * the Maven profile can override each of them with {@code -D}.
+ */
+public record LoadConfig(
+        int books,
+        int categories,
+        int users,
+        int ordersPerUser,
+        int threads,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        Path report) {
+
+    public static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                Integer.getInteger("load.books", 10000),
+                Integer.getInteger("load.categories", 20),
+                Integer.getInteger("load.users", 50),
+                Integer.getInteger("load.orders-per-user", 10),
+                Integer.getInteger("load.threads", 16),
+                Duration.parse(System.getProperty("load.warmup", "PT10S")),
+                Duration.parse(System.getProperty("load.duration", "PT60S")),
+                parseMix(System.getProperty("load.mix", "browse:40,search:25,cart:25,checkout:10")),
+                Path.of(System.getProperty("load.report", "target/load-report.json")));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] operationAndWeight = entry.trim().split(":");
+            weights.put(Operation.valueOf(operationAndWeight[0].trim().toUpperCase()),
+                    Integer.parseInt(operationAndWeight[1].trim()));
+        }
+        return weights;
+    }
+
+    public enum Operation {
+        BROWSE,
+        SEARCH,
+        CART,
+        CHECKOUT
+    }
+}
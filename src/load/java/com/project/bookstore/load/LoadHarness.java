@@ -0,0 +1,124 @@
+package com.project.bookstore.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.bookstore.BookStoreApplication;
+import com.project.bookstore.config.CustomMySqlContainer;
+import com.project.bookstore.load.LatencyRecorder.EndpointReport;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Boots the application on the MySQL Testcontainer, seeds it with
+ * {@link DatasetSeeder}, logs every seeded user in and drives a mixed
+ * workload over HTTP with {@link LoadWorker}s. Prints p50/p99 latency and
+ * throughput per endpoint and writes the same numbers as JSON.
+ */
+public class LoadHarness {
+    private static final String PASSWORD = "password123";
+    private static final Path APPLICATION_PROPERTIES =
+            Path.of("src/main/resources/application.properties");
+    private static final String REPORT_FORMAT = "%-24s %10s %8s %10s %10s %10s %10s%n";
+    private static final String ROW_FORMAT = "%-24s %10d %8d %10.1f %10.2f %10.2f %10.2f%n";
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        CustomMySqlContainer container = CustomMySqlContainer.getInstance();
+        container.start();
+        try (ConfigurableApplicationContext context = SpringApplication.run(
+                BookStoreApplication.class,
+                "--spring.config.location=" + APPLICATION_PROPERTIES.toUri(),
+                "--spring.datasource.url=" + container.getJdbcUrl(),
+                "--spring.datasource.username=" + container.getUsername(),
+                "--spring.datasource.password=" + container.getPassword(),
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN")) {
+            String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+            new DatasetSeeder(context.getBean(JdbcTemplate.class)).seed(config, passwordHash);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI baseUri = URI.create("http://localhost:" + port + "/api");
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .build();
+            List<String> tokens = login(httpClient, baseUri, objectMapper, config.users());
+            List<EndpointReport> reports = run(httpClient, baseUri, tokens, config);
+            print(config, reports);
+            Files.createDirectories(config.report().toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter()
+                    .writeValue(config.report().toFile(), reports);
+            System.out.println("Load report is saved to " + config.report().toAbsolutePath());
+        }
+    }
+
+    private static List<String> login(HttpClient httpClient, URI baseUri,
+                                      ObjectMapper objectMapper, int users)
+            throws IOException, InterruptedException {
+        List<String> tokens = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            String body = "{\"email\":\"" + DatasetSeeder.EMAIL_FORMAT.formatted(i)
+                    + "\",\"password\":\"" + PASSWORD + "\"}";
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(URI.create(baseUri + "/auth/login"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Can't log in load user " + i + ": "
+                        + response.statusCode() + " " + response.body());
+            }
+            tokens.add(objectMapper.readTree(response.body()).get("token").asText());
+        }
+        return tokens;
+    }
+
+    private static List<EndpointReport> run(HttpClient httpClient, URI baseUri,
+                                            List<String> tokens, LoadConfig config)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads());
+        try {
+            Instant measureFrom = Instant.now().plus(config.warmup());
+            List<Future<LatencyRecorder>> futures = new ArrayList<>();
+            for (int i = 0; i < config.threads(); i++) {
+                futures.add(executor.submit(
+                        new LoadWorker(httpClient, baseUri, tokens, config, measureFrom)));
+            }
+            LatencyRecorder recorder = new LatencyRecorder();
+            for (Future<LatencyRecorder> future : futures) {
+                recorder.merge(future.get());
+            }
+            return recorder.report(config.duration());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void print(LoadConfig config, List<EndpointReport> reports) {
+        System.out.printf("%nThreads: %d, users: %d, books: %d, measured: %s, mix: %s%n%n",
+                config.threads(), config.users(), config.books(), config.duration(),
+                config.mix());
+        System.out.printf(REPORT_FORMAT,
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "Max ms");
+        reports.forEach(report -> System.out.printf(ROW_FORMAT,
+                report.endpoint(), report.requests(), report.errors(), report.throughput(),
+                report.p50Millis(), report.p99Millis(), report.maxMillis()));
+    }
+}
@@ -0,0 +1,141 @@
+package com.project.bookstore.load;
+
+import com.project.bookstore.load.LoadConfig.Operation;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One simulated client. Until the deadline it picks an operation by the
+ * configured weights and a random user, and sends the requests a browser of
+ * that user would send. Latencies are recorded only after the warmup.
+ */
+public class LoadWorker implements Callable<LatencyRecorder> {
+    private static final int PAGE_SIZE = 20;
+    private static final String JSON = "application/json";
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final List<String> tokens;
+    private final LoadConfig config;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Instant measureFrom;
+    private final Instant deadline;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    public LoadWorker(HttpClient httpClient, URI baseUri, List<String> tokens,
+                      LoadConfig config, Instant measureFrom) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.tokens = tokens;
+        this.config = config;
+        this.operations = config.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        this.measureFrom = measureFrom;
+        this.deadline = measureFrom.plus(config.duration());
+    }
+
+    @Override
+    public LatencyRecorder call() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (Instant.now().isBefore(deadline)) {
+            String token = tokens.get(random.nextInt(tokens.size()));
+            switch (nextOperation(random)) {
+                case BROWSE -> browse(token, random);
+                case SEARCH -> search(token, random);
+                case CART -> cart(token, random);
+                case CHECKOUT -> checkout(token, random);
+            }
+        }
+        return recorder;
+    }
+
+    private void browse(String token, ThreadLocalRandom random) {
+        int pages = Math.max(config.books() / PAGE_SIZE, 1);
+        send("GET /books", get("/books?size=" + PAGE_SIZE + "&page=" + random.nextInt(pages),
+                token));
+        send("GET /books/{id}", get("/books/" + randomBookId(random), token));
+    }
+
+    private void search(String token, ThreadLocalRandom random) {
+        String author = DatasetSeeder.AUTHOR_PREFIX.replace(" ", "%20")
+                + random.nextInt(DatasetSeeder.AUTHORS);
+        send("GET /books/search", get("/books/search?size=" + PAGE_SIZE + "&authors=" + author,
+                token));
+        send("GET /books/search/text", get("/books/search/text?size=" + PAGE_SIZE
+                + "&query=" + randomBookId(random), token));
+    }
+
+    private void cart(String token, ThreadLocalRandom random) {
+        send("POST /cart", post("/cart", token,
+                "{\"bookId\":" + randomBookId(random) + ",\"quantity\":1}"));
+        send("GET /cart", get("/cart", token));
+    }
+
+    private void checkout(String token, ThreadLocalRandom random) {
+        send("POST /cart", post("/cart", token,
+                "{\"bookId\":" + randomBookId(random) + ",\"quantity\":1}"));
+        send("POST /orders", post("/orders", token, "{\"shippingAddress\":\"Address\"}"));
+        send("GET /orders", get("/orders?size=10&sort=orderDate,desc", token));
+    }
+
+    private Operation nextOperation(ThreadLocalRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private long randomBookId(ThreadLocalRandom random) {
+        return random.nextLong(config.books()) + 1;
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, String body) {
+        return request(path, token)
+                .header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUri + path))
+                .header("Accept", JSON)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private void send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        boolean failed;
+        try {
+            failed = httpClient.send(request, HttpResponse.BodyHandlers.discarding())
+                    .statusCode() >= 400;
+        } catch (IOException e) {
+            failed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load run interrupted", e);
+        }
+        long latency = System.nanoTime() - start;
+        if (!Instant.now().isBefore(measureFrom)) {
+            recorder.record(endpoint, latency, failed);
+        }
+    }
+}
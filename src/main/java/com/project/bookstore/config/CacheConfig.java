@@ -0,0 +1,65 @@
+package com.project.bookstore.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the Caffeine caches. Puts and evictions made inside a transaction
+ * are applied after it commits and dropped when it rolls back, so an eviction
+ * does not let a concurrent read cache the row that is about to change.
+ */
+@EnableCaching
+@Configuration
+public class CacheConfig {
+    public static final String PRINCIPALS = "principals";
+    public static final String ROLE_VERSIONS = "roleVersions";
+    public static final String BOOKS = "books";
+    public static final String BOOK_PAGES = "bookPages";
+    public static final String CATEGORY_BOOK_PAGES = "categoryBookPages";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${bookstore.cache.principals.ttl:5m}") Duration principalsTtl,
+            @Value("${bookstore.cache.principals.max-size:10000}") long principalsMaxSize,
+            @Value("${bookstore.cache.role-versions.ttl:30s}") Duration roleVersionsTtl,
+            @Value("${bookstore.cache.books.ttl:10m}") Duration booksTtl,
+            @Value("${bookstore.cache.books.max-size:10000}") long booksMaxSize,
+            @Value("${bookstore.cache.book-pages.max-size:1000}") long bookPagesMaxSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(
+                    String name,
+                    Cache<Object, Object> cache) {
+                return new TransactionAwareCacheDecorator(super.adaptCaffeineCache(name, cache));
+            }
+        };
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(PRINCIPALS,
+                buildCache(principalsTtl, principalsMaxSize));
+        cacheManager.registerCustomCache(ROLE_VERSIONS,
+                buildCache(roleVersionsTtl, principalsMaxSize));
+        cacheManager.registerCustomCache(BOOKS,
+                buildCache(booksTtl, booksMaxSize));
+        cacheManager.registerCustomCache(BOOK_PAGES,
+                buildCache(booksTtl, bookPagesMaxSize));
+        cacheManager.registerCustomCache(CATEGORY_BOOK_PAGES,
+                buildCache(booksTtl, bookPagesMaxSize));
+        return cacheManager;
+    }
+
+    private Cache<Object, Object> buildCache(Duration ttl, long maxSize) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+}
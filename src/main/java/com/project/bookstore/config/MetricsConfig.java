@@ -0,0 +1,43 @@
+package com.project.bookstore.config;
+
+import com.project.bookstore.metrics.CountingDataSource;
+import com.project.bookstore.metrics.SqlStatementCounter;
+import com.project.bookstore.metrics.StatementBudgetInterceptor;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+    public static final String SERVICE_TIMER = "bookstore.service";
+    private final StatementBudgetInterceptor statementBudgetInterceptor;
+
+    /**
+     * Wraps the data source used by Hibernate and JdbcTemplate, which is the
+     * routing data source when a replica is configured, so each statement is
+     * counted once whichever pool runs it.
+     */
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor(
+            ObjectProvider<SqlStatementCounter> sqlStatementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        ? new CountingDataSource(dataSource, sqlStatementCounter.getObject())
+                        : bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementBudgetInterceptor);
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.bookstore.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only service method whose reads may be served by the replica.
+ * Other read-only transactions, e.g. the lookups behind authentication, stay
+ * on the primary, since they must not see a lagging copy.
+ * Cached reads are not marked either: a lagging row read right after an
+ * eviction would stay in the cache for its whole TTL.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromReplica {
+}
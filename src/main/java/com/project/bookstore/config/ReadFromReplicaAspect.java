@@ -0,0 +1,25 @@
+package com.project.bookstore.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "bookstore.datasource.replica", name = "url")
+public class ReadFromReplicaAspect {
+    @Around("@annotation(com.project.bookstore.config.ReadFromReplica)")
+    public Object readFromReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ReplicaRoutingDataSource.allowReplicaReads();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.restoreReplicaReads(previous);
+        }
+    }
+}
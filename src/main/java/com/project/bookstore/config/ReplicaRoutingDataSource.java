@@ -0,0 +1,87 @@
+package com.project.bookstore.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections of read-only transactions that run inside a method marked
+ * with {@link ReadFromReplica} to the replica and everything else to the
+ * primary. A user who opened a read-write transaction keeps reading from the
+ * primary for the read-your-writes window, so they see their own writes.
+ * Statements run outside of a transaction, like the user lookup of the JWT
+ * filter, do not count as writes.
+ * The recent writers are remembered by this instance only. When requests of
+ * one user are spread over several instances, a read on another instance can
+ * still hit a replica that has not caught up, so only reads that tolerate a
+ * lag should be marked.
+ * Has to be wrapped in a LazyConnectionDataSourceProxy, because the read-only
+ * flag of a transaction is only known after its connection was requested.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<Boolean> REPLICA_READS = new ThreadLocal<>();
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            DataSource replica,
+            Duration readYourWritesWindow,
+            long maxRecentWriters) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(maxRecentWriters)
+                .build();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        String username = getUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                recentWriters.put(username, true);
+            }
+            return Route.PRIMARY;
+        }
+        if (!Boolean.TRUE.equals(REPLICA_READS.get())) {
+            return Route.PRIMARY;
+        }
+        if (username != null && recentWriters.getIfPresent(username) != null) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    static boolean allowReplicaReads() {
+        boolean previous = Boolean.TRUE.equals(REPLICA_READS.get());
+        REPLICA_READS.set(true);
+        return previous;
+    }
+
+    static void restoreReplicaReads(boolean previous) {
+        if (!previous) {
+            REPLICA_READS.remove();
+        }
+    }
+
+    private String getUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+}
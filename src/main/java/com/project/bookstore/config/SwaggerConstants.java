@@ -67,19 +67,87 @@ public class SwaggerConstants {
             if search parameters are invalid.
             3. **Request parameters:** Accepts parameters 
             for book\s
-            titles, authors, prices, and ISBNs.
+            titles, authors, prices, ISBNs and a price range.
             4. **Request fields constraints:**
             - 'titles' can include one or more book titles 
             for search.
             - 'authors' can include one or more author names 
             for search.
-            - 'prices' can include a range of prices (e.g., "10-20") 
+            - 'prices' can include one or more exact prices 
             for search.
+            - 'minPrice' and 'maxPrice' limit the price range 
+            (both inclusive); either of them may be omitted.
             - 'isbns' can include one or more ISBNs for search.
             5. **Other related information:** The search 
             is performed\s
             using a combination of provided parameters and supports\s
             pagination.""";
+    public static final String SEARCH_BOOKS_FULL_TEXT_SUM
+            = "Full-text Search Books";
+    public static final String SEARCH_BOOKS_FULL_TEXT_DESC
+            = """
+            1. **Authorities:** Accessible by users with 
+            'user' authority.
+            2. **Exceptions:** -
+            3. **Request parameters:** 'query' with free text, 
+            plus optional 'page' and 'size'.
+            4. **Other related information:** The query is split 
+            into words and every word is matched as a prefix of 
+            a word in the book title or author, so "eff jav" 
+            finds "Effective Java". Books containing all words are 
+            returned, most relevant first. Sort parameters are 
+            ignored.""";
+    public static final String SCROLL_BOOKS_SUM
+            = "Scroll Books";
+    public static final String SCROLL_BOOKS_DESC
+            = """
+            1. **Authorities:** Accessible by users with 
+            'user' authority.
+            2. **Exceptions:** Returns 400 Bad Request if the cursor 
+            is malformed or the sort property is not supported.
+            3. **Request parameters:**
+            - 'cursor' is the 'nextCursor' value of the previous 
+            slice; omit it to get the first slice.
+            - 'size' is the number of books per slice (1-100, 
+            default 20).
+            - 'sort' accepts one of id, title, author or price 
+            with an optional direction, e.g. "price,desc". It is 
+            only read for the first slice, later slices keep 
+            the order stored in the cursor.
+            4. **Other related information:** Keyset pagination 
+            that does not run count queries and does not slow down 
+            on deep pages. Returns the books, the next cursor and 
+            whether more books are available.""";
+    public static final String SCROLL_SEARCH_BOOKS_SUM
+            = "Scroll Book Search Results";
+    public static final String SCROLL_SEARCH_BOOKS_DESC
+            = """
+            1. **Authorities:** Accessible by users with 
+            'user' authority.
+            2. **Exceptions:** Returns 400 Bad Request if the cursor 
+            is malformed or the sort property is not supported.
+            3. **Request parameters:** Accepts the titles, authors, 
+            prices and ISBNs parameters of the search endpoint 
+            together with 'cursor', 'size' and 'sort'. The same 
+            search parameters must be sent with every cursor.
+            4. **Other related information:** Keyset pagination 
+            over search results without count queries.""";
+    public static final String FIND_ALL_BOOK_SUMMARIES_SUM
+            = "Find All Book Summaries";
+    public static final String FIND_ALL_BOOK_SUMMARIES_DESC
+            = """
+            1. **Authorities:** Accessible by users with 
+            'user' authority.
+            2. **Exceptions:** Throws IllegalArgumentException 
+            if search parameters are invalid.
+            3. **Request parameters:** Optionally accepts the same 
+            titles, authors, prices and ISBNs parameters as the 
+            search endpoint.
+            4. **Other related information:** This endpoint 
+            retrieves a \
+            paginated list of books with ID, title, author, ISBN, 
+            price and cover image only. Descriptions and category 
+            IDs are not loaded, which keeps list pages light.""";
     public static final String FIND_BOOK_BY_ID_SUM
             = "Find Book by ID";
     public static final String FIND_BOOK_BY_ID_DESC
@@ -155,6 +223,50 @@ public class SwaggerConstants {
             It persists all provided books to the 
             database and\s
             returns a list of BookDto objects.""";
+    public static final String IMPORT_BOOKS_NDJSON_SUM
+            = "Import books from newline-delimited JSON";
+    public static final String IMPORT_BOOKS_NDJSON_DESC
+            = """
+            1. **Authorities:** Accessible by users with 
+            'admin' authority.
+            2. **Exceptions:** None for invalid rows, they are 
+            reported in the response.
+            3. **Request parameters:** None. The request body 
+            is 'application/x-ndjson'.
+            4. **Request fields constraints:** Each line is a 
+            JSON book with the same constraints as 
+            the save book endpoint.
+            5. **Other related information:** The body 
+            is read as a stream\s
+            and valid books are written in JDBC batches, each 
+            batch in its own transaction.\s
+            Returns the number of imported and failed rows 
+            and the errors of failed rows with their line 
+            numbers (at most 1000 errors are listed).""";
+    public static final String IMPORT_BOOKS_CSV_SUM
+            = "Import books from CSV";
+    public static final String IMPORT_BOOKS_CSV_DESC
+            = """
+            1. **Authorities:** Accessible by users with 
+            'admin' authority.
+            2. **Exceptions:** May throw BookImportException\s
+            if the header row is missing or contains unknown columns. 
+            Invalid rows are reported in the response.
+            3. **Request parameters:** None. The request body 
+            is 'text/csv'.
+            4. **Request fields constraints:** The first row 
+            names the columns: title, author, isbn, price, 
+            description, coverImage and categoryIds. Values 
+            may be quoted, category ids are separated by ';'. 
+            Each row has the same constraints as the save 
+            book endpoint.
+            5. **Other related information:** The body 
+            is read as a stream\s
+            and valid books are written in JDBC batches, each 
+            batch in its own transaction.\s
+            Returns the number of imported and failed rows 
+            and the errors of failed rows with their line 
+            numbers (at most 1000 errors are listed).""";
     public static final String UPDATE_BOOK_BY_ID_SUM
             = "Update book details by ID";
     public static final String UPDATE_BOOK_BY_ID_DESC
@@ -330,6 +442,29 @@ public class SwaggerConstants {
             - The endpoint supports sorting and pagination 
             for efficient data retrieval of books within 
             a specific category.""";
+    public static final String SCROLL_BOOKS_BY_CATEGORY_ID_SUM
+            = "Scroll books by category ID";
+    public static final String SCROLL_BOOKS_BY_CATEGORY_ID_DESC = """
+            1. **Possible response codes and messages:**
+            - 200 OK: Successful retrieval of a slice of books
+            - 400 Bad Request: The cursor is malformed or the sort 
+            property is not supported
+            - 401 Unauthorized: Authentication is required 
+            and has failed or has not yet been provided
+            - 403 Forbidden: The user does not have the 
+            necessary permissions for the resource
+            2. **Authorities that have access to the endpoint:**
+            - `user`
+            3. **Exceptions that can be thrown:**
+            - InvalidCursorException
+            4. **Request fields constraints (according 
+            to validation):**
+            - id: must be a positive long value
+            - size: from 1 to 100, default 20
+            - sort: one of id, title, author or price
+            5. **Other related information:**
+            - Keyset pagination over the books of a category. 
+            Pass the returned 'nextCursor' to get the next slice.""";
     public static final String DELETE_CATEGORY_BY_ID_SUM
             = "Delete category by ID";
     public static final String DELETE_CATEGORY_BY_ID_DESC = """
@@ -397,10 +532,17 @@ public class SwaggerConstants {
             4. **Request fields constraints (according 
             to validation):**
             - shippingAddress: must not be blank
+            - Idempotency-Key header: optional, at most 
+            64 characters
             5. **Other related information:**
             - The endpoint creates a new order based 
             on the user's shopping cart and provided 
-            shipping address.""";
+            shipping address.
+            - Checkout runs in one transaction. A request 
+            repeated with the same Idempotency-Key header 
+            returns the original order instead of 
+            creating a new one, until the key expires 
+            (24 hours by default).""";
     public static final String GET_ORDER_ITEMS_SUM
             = "Retrieve order items by order ID";
     public static final String GET_ORDER_ITEMS_DESC = """
@@ -567,7 +709,42 @@ public class SwaggerConstants {
             - quantity: must be a positive integer
             5. **Other related information:**
             - The endpoint allows users to add 
-            an item (book) to their shopping cart.""";
+            an item (book) to their shopping cart.
+            - Adding a book that is already in the 
+            cart increases the quantity of the 
+            existing item.""";
+    public static final String POST_CART_ITEMS_SUM
+            = "Add several items to the shopping cart";
+    public static final String POST_CART_ITEMS_DESC = """
+            1. **Possible response codes and messages:**
+            - 200 OK: Successful addition of the 
+            items to the shopping cart
+            - 400 Bad Request: The list is empty, 
+            has more than 100 items or has an 
+            invalid item
+            - 401 Unauthorized: Authentication 
+            is required and has failed or has 
+            not yet been provided
+            - 403 Forbidden: The user does not 
+            have the necessary permissions 
+            for the resource
+            2. **Authorities that have access 
+            to the endpoint:**
+            - `user`
+            3. **Exceptions that can be thrown:**
+            - EntityNotFoundException: No user 
+            found with the provided email
+            4. **Request fields constraints 
+            (according to validation):**
+            - from 1 to 100 items
+            - bookId: must be a positive long value
+            - quantity: must be a positive integer
+            5. **Other related information:**
+            - The items are added with one batched 
+            upsert: books already in the cart get 
+            their quantity increased.
+            - One item is returned per distinct 
+            book, in the order of the request.""";
     public static final String UPDATE_CART_ITEM_SUM
             = "Update quantity of a cart item";
     public static final String UPDATE_CART_ITEM_DESC = """
@@ -653,4 +830,26 @@ public class SwaggerConstants {
             5. **Other related information:**
             - The endpoint allows admins to update the roles assigned to a user.""";
 
+    /**
+     * Cache controller annotation
+     */
+    public static final String GET_CACHE_STATS_SUM
+            = "Retrieve in-memory cache statistics";
+    public static final String GET_CACHE_STATS_DESC = """
+            1. **Possible response codes and messages:**
+            - 200 OK: Successful retrieval of cache statistics
+            - 401 Unauthorized: Authentication is required and has 
+            failed or has not yet been provided
+            - 403 Forbidden: The user does not have the necessary 
+            permissions for the resource
+            2. **Authorities that have access to the endpoint:**
+            - ADMIN
+            3. **Exceptions that can be thrown:**
+            4. **Request fields constraints (according to validation):**
+            - No constraints, as this is a simple GET request without 
+            a request body
+            5. **Other related information:**
+            - Returns size, hit/miss counters, hit rate and eviction 
+            count for every cache, e.g. the 'principals' cache used 
+            by the JWT filter to resolve authenticated users.""";
 }
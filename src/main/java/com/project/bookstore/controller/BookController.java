@@ -2,15 +2,24 @@ package com.project.bookstore.controller;
 
 import com.project.bookstore.config.SwaggerConstants;
 import com.project.bookstore.dto.book.BookDto;
+import com.project.bookstore.dto.book.BookImportResultDto;
 import com.project.bookstore.dto.book.BookSearchParameters;
+import com.project.bookstore.dto.book.BookSliceDto;
+import com.project.bookstore.dto.book.BookSummaryDto;
 import com.project.bookstore.dto.book.CreateBookRequestDto;
+import com.project.bookstore.metrics.StatementBudget;
+import com.project.bookstore.service.book.BookImportFormat;
+import com.project.bookstore.service.book.BookImportService;
 import com.project.bookstore.service.book.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,6 +29,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Tag(name = "Books management endpoints")
@@ -28,11 +38,13 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping(value = "/books")
 public class BookController {
     private final BookService bookService;
+    private final BookImportService bookImportService;
 
     @GetMapping
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = SwaggerConstants.FIND_ALL_BOOKS_SUM,
             description = SwaggerConstants.FIND_ALL_BOOKS_DESC)
+    @StatementBudget(3)
     public List<BookDto> findAll(Pageable pageable) {
         return bookService.findAll(pageable);
     }
@@ -41,14 +53,60 @@ public class BookController {
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = SwaggerConstants.SEARCH_BOOKS_SUM,
             description = SwaggerConstants.SEARCH_BOOKS_DESC)
+    @StatementBudget(3)
     public List<BookDto> search(BookSearchParameters searchParameters, Pageable pageable) {
         return bookService.search(searchParameters, pageable);
     }
 
+    @GetMapping("/search/text")
+    @PreAuthorize("hasAuthority('user')")
+    @Operation(summary = SwaggerConstants.SEARCH_BOOKS_FULL_TEXT_SUM,
+            description = SwaggerConstants.SEARCH_BOOKS_FULL_TEXT_DESC)
+    public List<BookDto> searchFullText(@RequestParam String query, Pageable pageable) {
+        return bookService.searchFullText(query, pageable);
+    }
+
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAuthority('user')")
+    @Operation(summary = SwaggerConstants.SCROLL_BOOKS_SUM,
+            description = SwaggerConstants.SCROLL_BOOKS_DESC)
+    @StatementBudget(2)
+    public BookSliceDto<BookDto> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Sort sort) {
+        return bookService.scroll(cursor, size, sort);
+    }
+
+    @GetMapping("/search/scroll")
+    @PreAuthorize("hasAuthority('user')")
+    @Operation(summary = SwaggerConstants.SCROLL_SEARCH_BOOKS_SUM,
+            description = SwaggerConstants.SCROLL_SEARCH_BOOKS_DESC)
+    @StatementBudget(2)
+    public BookSliceDto<BookDto> scrollSearch(
+            BookSearchParameters searchParameters,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Sort sort) {
+        return bookService.scrollSearch(searchParameters, cursor, size, sort);
+    }
+
+    @GetMapping("/summaries")
+    @PreAuthorize("hasAuthority('user')")
+    @Operation(summary = SwaggerConstants.FIND_ALL_BOOK_SUMMARIES_SUM,
+            description = SwaggerConstants.FIND_ALL_BOOK_SUMMARIES_DESC)
+    @StatementBudget(2)
+    public List<BookSummaryDto> findAllSummaries(
+            BookSearchParameters searchParameters,
+            Pageable pageable) {
+        return bookService.findAllSummaries(searchParameters, pageable);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = SwaggerConstants.FIND_BOOK_BY_ID_SUM,
             description = SwaggerConstants.FIND_BOOK_BY_ID_DESC)
+    @StatementBudget(1)
     public BookDto findById(@PathVariable Long id) {
         return bookService.findById(id);
     }
@@ -69,6 +127,22 @@ public class BookController {
         return bookService.saveAll(requestDtos);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = SwaggerConstants.IMPORT_BOOKS_NDJSON_SUM,
+            description = SwaggerConstants.IMPORT_BOOKS_NDJSON_DESC)
+    public BookImportResultDto importNdjson(InputStream inputStream) {
+        return bookImportService.importBooks(inputStream, BookImportFormat.NDJSON);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = SwaggerConstants.IMPORT_BOOKS_CSV_SUM,
+            description = SwaggerConstants.IMPORT_BOOKS_CSV_DESC)
+    public BookImportResultDto importCsv(InputStream inputStream) {
+        return bookImportService.importBooks(inputStream, BookImportFormat.CSV);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('admin')")
     @Operation(summary = SwaggerConstants.UPDATE_BOOK_BY_ID_SUM,
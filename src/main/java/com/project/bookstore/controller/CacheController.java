@@ -0,0 +1,30 @@
+package com.project.bookstore.controller;
+
+import static com.project.bookstore.config.SwaggerConstants.GET_CACHE_STATS_DESC;
+import static com.project.bookstore.config.SwaggerConstants.GET_CACHE_STATS_SUM;
+
+import com.project.bookstore.dto.cache.CacheStatsDto;
+import com.project.bookstore.service.cache.CacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/cache")
+@RequiredArgsConstructor
+@Tag(name = "Cache management endpoints")
+public class CacheController {
+    private final CacheService cacheService;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = GET_CACHE_STATS_SUM, description = GET_CACHE_STATS_DESC)
+    public List<CacheStatsDto> getStats() {
+        return cacheService.getStats();
+    }
+}
@@ -12,12 +12,16 @@ import static com.project.bookstore.config.SwaggerConstants.SAVE_ALL_CATEGORIES_
 import static com.project.bookstore.config.SwaggerConstants.SAVE_ALL_CATEGORIES_SUM;
 import static com.project.bookstore.config.SwaggerConstants.SAVE_CATEGORY_DESC;
 import static com.project.bookstore.config.SwaggerConstants.SAVE_CATEGORY_SUM;
+import static com.project.bookstore.config.SwaggerConstants.SCROLL_BOOKS_BY_CATEGORY_ID_DESC;
+import static com.project.bookstore.config.SwaggerConstants.SCROLL_BOOKS_BY_CATEGORY_ID_SUM;
 import static com.project.bookstore.config.SwaggerConstants.UPDATE_CATEGORY_BY_ID_DESC;
 import static com.project.bookstore.config.SwaggerConstants.UPDATE_CATEGORY_BY_ID_SUM;
 
+import com.project.bookstore.dto.book.BookSliceDto;
 import com.project.bookstore.dto.book.BookWithoutCategoryIdsDto;
 import com.project.bookstore.dto.category.CategoryDto;
 import com.project.bookstore.dto.category.CreateCategoryRequestDto;
+import com.project.bookstore.metrics.StatementBudget;
 import com.project.bookstore.service.book.BookService;
 import com.project.bookstore.service.category.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -25,6 +29,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -33,6 +38,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -60,6 +66,7 @@ public class CategoryController {
     @GetMapping
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = FIND_ALL_CATEGORIES_SUM, description = FIND_ALL_CATEGORIES_DESC)
+    @StatementBudget(2)
     public List<CategoryDto> findAll(Pageable pageable) {
         return categoryService.findAll(pageable);
     }
@@ -84,12 +91,26 @@ public class CategoryController {
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = FIND_ALL_BOOKS_BY_CATEGORY_ID_SUM,
             description = FIND_ALL_BOOKS_BY_CATEGORY_ID_DESC)
+    @StatementBudget(2)
     public List<BookWithoutCategoryIdsDto> findAllBooksByCategoryId(
             @PathVariable Long id,
             Pageable pageable) {
         return bookService.findAllByCategoryId(id, pageable);
     }
 
+    @GetMapping("/{id}/books/scroll")
+    @PreAuthorize("hasAuthority('user')")
+    @Operation(summary = SCROLL_BOOKS_BY_CATEGORY_ID_SUM,
+            description = SCROLL_BOOKS_BY_CATEGORY_ID_DESC)
+    @StatementBudget(1)
+    public BookSliceDto<BookWithoutCategoryIdsDto> scrollBooksByCategoryId(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Sort sort) {
+        return bookService.scrollByCategoryId(id, cursor, size, sort);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('admin')")
     @Operation(summary = DELETE_CATEGORY_BY_ID_SUM, description = DELETE_CATEGORY_BY_ID_DESC)
@@ -16,19 +16,24 @@ import com.project.bookstore.dto.order.OrderDto;
 import com.project.bookstore.dto.order.OrderWithoutItemsDto;
 import com.project.bookstore.dto.order.UpdateOrderStatusDto;
 import com.project.bookstore.dto.order.item.OrderItemDto;
+import com.project.bookstore.metrics.StatementBudget;
+import com.project.bookstore.model.User;
 import com.project.bookstore.service.order.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Size;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -42,6 +47,7 @@ public class OrderController {
     @GetMapping
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = FIND_ALL_ORDERS_SUM, description = FIND_ALL_ORDERS_DESC)
+    @StatementBudget(3)
     public List<OrderDto> findAll(
             Authentication authentication,
             Pageable pageable) {
@@ -51,15 +57,19 @@ public class OrderController {
     @PostMapping
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = SAVE_ORDER_SUM, description = SAVE_ORDER_DESC)
+    @StatementBudget(11)
     public OrderDto save(
-            Authentication authentication,
+            @AuthenticationPrincipal User user,
+            @RequestHeader(value = "Idempotency-Key", required = false)
+            @Size(max = 64) String idempotencyKey,
             @RequestBody CreateOrderRequestDto requestDto) {
-        return orderService.save(authentication.getName(), requestDto);
+        return orderService.save(user, requestDto, idempotencyKey);
     }
 
     @GetMapping("/{orderId}/items")
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = GET_ORDER_ITEMS_SUM, description = GET_ORDER_ITEMS_DESC)
+    @StatementBudget(2)
     public List<OrderItemDto> getItems(
             @PathVariable Long orderId,
             Authentication authentication) {
@@ -69,6 +79,7 @@ public class OrderController {
     @GetMapping("/{orderId}/items/{itemId}")
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = FIND_ORDER_ITEM_BY_ID_SUM, description = FIND_ORDER_ITEM_BY_ID_DESC)
+    @StatementBudget(1)
     public OrderItemDto findOrderItemById(
             @PathVariable Long orderId,
             @PathVariable Long itemId,
@@ -4,6 +4,7 @@ import static com.project.bookstore.config.SwaggerConstants.FIND_ALL_ROLES_DESC;
 import static com.project.bookstore.config.SwaggerConstants.FIND_ALL_ROLES_SUM;
 
 import com.project.bookstore.dto.role.RoleDto;
+import com.project.bookstore.metrics.StatementBudget;
 import com.project.bookstore.service.role.RoleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,6 +25,7 @@ public class RoleController {
     @GetMapping
     @PreAuthorize("hasAuthority('admin')")
     @Operation(summary = FIND_ALL_ROLES_SUM, description = FIND_ALL_ROLES_DESC)
+    @StatementBudget(1)
     public List<RoleDto> findAll() {
         return roleService.findAll();
     }
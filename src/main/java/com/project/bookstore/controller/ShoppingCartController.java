@@ -4,6 +4,8 @@ import static com.project.bookstore.config.SwaggerConstants.DELETE_CART_ITEM_DES
 import static com.project.bookstore.config.SwaggerConstants.DELETE_CART_ITEM_SUM;
 import static com.project.bookstore.config.SwaggerConstants.GET_CART_DESC;
 import static com.project.bookstore.config.SwaggerConstants.GET_CART_SUM;
+import static com.project.bookstore.config.SwaggerConstants.POST_CART_ITEMS_DESC;
+import static com.project.bookstore.config.SwaggerConstants.POST_CART_ITEMS_SUM;
 import static com.project.bookstore.config.SwaggerConstants.POST_CART_ITEM_DESC;
 import static com.project.bookstore.config.SwaggerConstants.POST_CART_ITEM_SUM;
 import static com.project.bookstore.config.SwaggerConstants.UPDATE_CART_ITEM_DESC;
@@ -13,12 +15,18 @@ import com.project.bookstore.dto.shopping.cart.ShoppingCartDto;
 import com.project.bookstore.dto.shopping.item.CartItemWithoutBookTitleDto;
 import com.project.bookstore.dto.shopping.item.CreateCartItemRequestDto;
 import com.project.bookstore.dto.shopping.item.UpdateCartItemRequestDto;
+import com.project.bookstore.metrics.StatementBudget;
+import com.project.bookstore.model.User;
 import com.project.bookstore.service.shopping.cart.ShoppingCartService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -38,33 +46,48 @@ public class ShoppingCartController {
     @GetMapping
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = GET_CART_SUM, description = GET_CART_DESC)
-    public ShoppingCartDto getCart(Authentication authentication) {
-        return shoppingCartService.findCartByUserName(authentication.getName());
+    @StatementBudget(1)
+    public ShoppingCartDto getCart(@AuthenticationPrincipal User user) {
+        return shoppingCartService.findCartByUser(user);
     }
 
     @PostMapping
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = POST_CART_ITEM_SUM, description = POST_CART_ITEM_DESC)
+    @StatementBudget(4)
     public CartItemWithoutBookTitleDto postItem(
-            Authentication authentication,
-            @RequestBody CreateCartItemRequestDto requestDto) {
-        return shoppingCartService.postItem(authentication.getName(), requestDto);
+            @AuthenticationPrincipal User user,
+            @RequestBody @Valid CreateCartItemRequestDto requestDto) {
+        return shoppingCartService.postItem(user, requestDto);
+    }
+
+    @PostMapping("/cart-items/batch")
+    @PreAuthorize("hasAuthority('user')")
+    @Operation(summary = POST_CART_ITEMS_SUM, description = POST_CART_ITEMS_DESC)
+    @StatementBudget(4)
+    public List<CartItemWithoutBookTitleDto> postItems(
+            @AuthenticationPrincipal User user,
+            @RequestBody @NotEmpty @Size(max = 100)
+            List<@Valid CreateCartItemRequestDto> requestDtos) {
+        return shoppingCartService.postItems(user, requestDtos);
     }
 
     @PutMapping("/cart-items/{id}")
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = UPDATE_CART_ITEM_SUM, description = UPDATE_CART_ITEM_DESC)
+    @StatementBudget(4)
     public CartItemWithoutBookTitleDto updateItem(
             @PathVariable Long id,
-            Authentication authentication,
+            @AuthenticationPrincipal User user,
             @RequestBody UpdateCartItemRequestDto requestDto) {
-        return shoppingCartService.updateItem(authentication.getName(), id, requestDto);
+        return shoppingCartService.updateItem(user, id, requestDto);
     }
 
     @DeleteMapping("/cart-items/{id}")
     @PreAuthorize("hasAuthority('user')")
     @Operation(summary = DELETE_CART_ITEM_SUM, description = DELETE_CART_ITEM_DESC)
-    public void deleteItem(@PathVariable Long id, Authentication authentication) {
-        shoppingCartService.deleteItem(id, authentication.getName());
+    @StatementBudget(3)
+    public void deleteItem(@PathVariable Long id, @AuthenticationPrincipal User user) {
+        shoppingCartService.deleteItem(id, user);
     }
 }
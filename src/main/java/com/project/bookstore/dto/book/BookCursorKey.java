@@ -0,0 +1,13 @@
+package com.project.bookstore.dto.book;
+
+import java.math.BigDecimal;
+
+public interface BookCursorKey {
+    Long id();
+
+    String title();
+
+    String author();
+
+    BigDecimal price();
+}
@@ -11,5 +11,5 @@ public record BookDto(
         BigDecimal price,
         String description,
         String coverImage,
-        Set<Long> categoryIds) {
+        Set<Long> categoryIds) implements BookCursorKey {
 }
@@ -0,0 +1,6 @@
+package com.project.bookstore.dto.book;
+
+public record BookImportErrorDto(
+        long line,
+        String message) {
+}
@@ -0,0 +1,9 @@
+package com.project.bookstore.dto.book;
+
+import java.util.List;
+
+public record BookImportResultDto(
+        long imported,
+        long failed,
+        List<BookImportErrorDto> errors) {
+}
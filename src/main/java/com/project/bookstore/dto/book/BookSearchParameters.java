@@ -1,8 +1,12 @@
 package com.project.bookstore.dto.book;
 
+import java.math.BigDecimal;
+
 public record BookSearchParameters(
         String[] titles,
         String[] authors,
         String[] prices,
-        String[] isbns) {
+        String[] isbns,
+        BigDecimal minPrice,
+        BigDecimal maxPrice) {
 }
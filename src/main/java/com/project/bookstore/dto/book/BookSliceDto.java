@@ -0,0 +1,9 @@
+package com.project.bookstore.dto.book;
+
+import java.util.List;
+
+public record BookSliceDto<T>(
+        List<T> content,
+        String nextCursor,
+        boolean hasNext) {
+}
@@ -0,0 +1,12 @@
+package com.project.bookstore.dto.book;
+
+import java.math.BigDecimal;
+
+public record BookSummaryDto(
+        Long id,
+        String title,
+        String author,
+        String isbn,
+        BigDecimal price,
+        String coverImage) implements BookCursorKey {
+}
@@ -9,5 +9,5 @@ public record BookWithoutCategoryIdsDto(
         String isbn,
         BigDecimal price,
         String description,
-        String coverImage) {
+        String coverImage) implements BookCursorKey {
 }
@@ -15,5 +15,5 @@ public record CreateBookRequestDto(
         @NotNull @Min(0) BigDecimal price,
         @NotNull @NotBlank String description,
         @Url String coverImage,
-        @NotNull List<Long> categoryIds) {
+        @NotNull List<@NotNull Long> categoryIds) {
 }
@@ -0,0 +1,10 @@
+package com.project.bookstore.dto.cache;
+
+public record CacheStatsDto(
+        String name,
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount) {
+}
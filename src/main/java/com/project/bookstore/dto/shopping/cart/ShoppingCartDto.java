@@ -1,10 +1,13 @@
 package com.project.bookstore.dto.shopping.cart;
 
 import com.project.bookstore.dto.shopping.item.CartItemDto;
+import java.math.BigDecimal;
 import java.util.List;
 
 public record ShoppingCartDto(
         Long id,
         Long userId,
-        List<CartItemDto> cartItems) {
+        List<CartItemDto> cartItems,
+        BigDecimal total,
+        int itemCount) {
 }
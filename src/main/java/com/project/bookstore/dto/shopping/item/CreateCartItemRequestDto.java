@@ -1,6 +1,9 @@
 package com.project.bookstore.dto.shopping.item;
 
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
 public record CreateCartItemRequestDto(
-        Long bookId,
-        Integer quantity) {
+        @NotNull @Positive Long bookId,
+        @NotNull @Positive Integer quantity) {
 }
@@ -0,0 +1,7 @@
+package com.project.bookstore.exception;
+
+public class BookImportException extends RuntimeException {
+    public BookImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.bookstore.exception;
+
+public class CheckoutInProgressException extends RuntimeException {
+    public CheckoutInProgressException(String message) {
+        super(message);
+    }
+}
@@ -2,7 +2,6 @@ package com.project.bookstore.mapper;
 
 import com.project.bookstore.config.MapperConfig;
 import com.project.bookstore.dto.shopping.cart.ShoppingCartDto;
-import com.project.bookstore.model.Order;
 import com.project.bookstore.model.ShoppingCart;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -12,8 +11,4 @@ public interface ShoppingCartMapper {
     @Mapping(target = "cartItems", source = "cartItems", qualifiedByName = "toCartItemDtoList")
     @Mapping(target = "userId", source = "user.id")
     ShoppingCartDto toDto(ShoppingCart shoppingCart);
-
-    @Mapping(target = "id", ignore = true)
-    @Mapping(target = "orderItems", source = "cartItems", qualifiedByName = "toOrderItems")
-    Order toOrder(ShoppingCart shoppingCart);
 }
@@ -22,6 +22,7 @@ public interface UserMapper {
 
     UserDto toDto(User user);
 
+    @Mapping(target = "roleVersion", ignore = true)
     User toModel(CreateUserRequestDto requestDto);
 
     @Named("createRoleIdSet")
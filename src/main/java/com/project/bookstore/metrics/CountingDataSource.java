@@ -0,0 +1,80 @@
+package com.project.bookstore.metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts every statement executed through the wrapped data source with the
+ * {@link SqlStatementCounter}, so the batches written with JdbcTemplate are
+ * counted as well as the statements of Hibernate. A JDBC batch is sent in one
+ * round trip and counts as one statement.
+ */
+public class CountingDataSource extends DelegatingDataSource {
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate",
+            "executeBatch", "executeLargeBatch");
+    private final SqlStatementCounter sqlStatementCounter;
+
+    public CountingDataSource(DataSource targetDataSource, SqlStatementCounter sqlStatementCounter) {
+        super(targetDataSource);
+        this.sqlStatementCounter = sqlStatementCounter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countStatements(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countStatements(super.getConnection(username, password));
+    }
+
+    private Connection countStatements(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {ConnectionProxy.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "getTargetConnection" -> connection;
+                    default -> {
+                        Object result = invoke(connection, method, args);
+                        yield result != null && Statement.class.isAssignableFrom(
+                                method.getReturnType())
+                                ? countExecutions((Statement) result, method.getReturnType())
+                                : result;
+                    }
+                });
+    }
+
+    private Statement countExecutions(Statement statement, Class<?> statementType) {
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {statementType},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> {
+                        if (EXECUTE_METHODS.contains(method.getName())) {
+                            sqlStatementCounter.increment();
+                        }
+                        yield invoke(statement, method, args);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.project.bookstore.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements executed on the current thread between
+ * {@link #start()} and {@link #stop()}, as reported by the
+ * {@link CountingDataSource} around the application's data source. Statements
+ * run outside of a counted scope, e.g. by scheduled jobs, are not counted.
+ */
+@Component
+public class SqlStatementCounter {
+    private final ThreadLocal<AtomicInteger> statements = new ThreadLocal<>();
+
+    public void increment() {
+        AtomicInteger count = statements.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    public void start() {
+        statements.set(new AtomicInteger());
+    }
+
+    public boolean isCounting() {
+        return statements.get() != null;
+    }
+
+    public int count() {
+        AtomicInteger count = statements.get();
+        return count != null ? count.get() : 0;
+    }
+
+    public int stop() {
+        AtomicInteger count = statements.get();
+        statements.remove();
+        return count != null ? count.get() : 0;
+    }
+}
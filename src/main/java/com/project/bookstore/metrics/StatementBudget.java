@@ -0,0 +1,17 @@
+package com.project.bookstore.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a controller method may run while handling
+ * a single request, including writing the response body. Statements are counted
+ * at the JDBC level, so JdbcTemplate batches count too, each as one statement.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+    int value();
+}
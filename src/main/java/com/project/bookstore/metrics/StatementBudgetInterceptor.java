@@ -0,0 +1,112 @@
+package com.project.bookstore.metrics;
+
+import com.project.bookstore.exception.StatementBudgetExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Checks the statements run by handlers annotated with {@link StatementBudget}.
+ * An exceeded budget is logged once the request has completed, so statements
+ * run while the response body was written are included. When
+ * {@code bookstore.sql.statement-budget.fail-on-exceed} is set, as it is in
+ * tests, the request fails instead, before its response is written: by
+ * {@link StatementBudgetResponseBodyAdvice} for handlers with a response body
+ * and in {@link #postHandle} for the others.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatementBudgetInterceptor implements HandlerInterceptor {
+    private static final String STATEMENTS_BEFORE =
+            StatementBudgetInterceptor.class.getName() + ".STATEMENTS_BEFORE";
+    private static final String COUNTING_STARTED =
+            StatementBudgetInterceptor.class.getName() + ".COUNTING_STARTED";
+    private static final String BUDGET_CHECKED =
+            StatementBudgetInterceptor.class.getName() + ".BUDGET_CHECKED";
+    private final SqlStatementCounter sqlStatementCounter;
+    @Value("${bookstore.sql.statement-budget.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    @Override
+    public boolean preHandle(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler
+    ) {
+        if (getBudget(handler) == null) {
+            return true;
+        }
+        if (!sqlStatementCounter.isCounting()) {
+            sqlStatementCounter.start();
+            request.setAttribute(COUNTING_STARTED, true);
+        }
+        request.setAttribute(STATEMENTS_BEFORE, sqlStatementCounter.count());
+        return true;
+    }
+
+    @Override
+    public void postHandle(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            ModelAndView modelAndView
+    ) {
+        StatementBudget budget = getBudget(handler);
+        if (budget != null && request.getAttribute(BUDGET_CHECKED) == null) {
+            failIfExceeded(request, budget);
+        }
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            Exception ex
+    ) {
+        StatementBudget budget = getBudget(handler);
+        if (budget != null && request.getAttribute(STATEMENTS_BEFORE) != null) {
+            String message = checkBudget(request, budget);
+            if (message != null) {
+                log.warn(message);
+            }
+        }
+        if (request.getAttribute(COUNTING_STARTED) != null) {
+            sqlStatementCounter.stop();
+        }
+    }
+
+    void failIfExceeded(HttpServletRequest request, StatementBudget budget) {
+        request.setAttribute(BUDGET_CHECKED, true);
+        if (!failOnExceed || request.getAttribute(STATEMENTS_BEFORE) == null) {
+            return;
+        }
+        String message = checkBudget(request, budget);
+        if (message != null) {
+            throw new StatementBudgetExceededException(message);
+        }
+    }
+
+    private String checkBudget(HttpServletRequest request, StatementBudget budget) {
+        int statements = sqlStatementCounter.count()
+                - (int) request.getAttribute(STATEMENTS_BEFORE);
+        if (statements <= budget.value()) {
+            return null;
+        }
+        return "%s %s ran %d SQL statements, its budget is %d".formatted(
+                request.getMethod(), request.getRequestURI(), statements, budget.value());
+    }
+
+    private StatementBudget getBudget(Object handler) {
+        return handler instanceof HandlerMethod handlerMethod
+                ? handlerMethod.getMethodAnnotation(StatementBudget.class)
+                : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.project.bookstore.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Fails a request that exceeded its {@link StatementBudget} before the response
+ * body is written, so the client gets an error instead of a successful response.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class StatementBudgetResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+    private final StatementBudgetInterceptor statementBudgetInterceptor;
+
+    @Override
+    public boolean supports(
+            MethodParameter returnType,
+            Class<? extends HttpMessageConverter<?>> converterType
+    ) {
+        return returnType.hasMethodAnnotation(StatementBudget.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response
+    ) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            statementBudgetInterceptor.failIfExceeded(
+                    servletRequest.getServletRequest(),
+                    returnType.getMethodAnnotation(StatementBudget.class));
+        }
+        return body;
+    }
+}
@@ -45,7 +45,7 @@ public class Book {
     private String description;
     @Column(name = "cover_image")
     private String coverImage;
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "book_category",
             joinColumns = @JoinColumn(name = "book_id"),
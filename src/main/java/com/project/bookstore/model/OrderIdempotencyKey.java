@@ -0,0 +1,31 @@
+package com.project.bookstore.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Table(name = "order_idempotency_keys")
+@Setter
+@Getter
+public class OrderIdempotencyKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private User user;
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Order order;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
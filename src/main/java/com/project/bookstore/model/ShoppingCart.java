@@ -1,5 +1,6 @@
 package com.project.bookstore.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -8,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.Getter;
@@ -27,6 +29,10 @@ public class ShoppingCart {
     private User user;
     @OneToMany(mappedBy = "shoppingCart", fetch = FetchType.LAZY)
     private Set<CartItem> cartItems = new HashSet<>();
+    @Column(nullable = false, insertable = false, updatable = false)
+    private BigDecimal total = BigDecimal.ZERO;
+    @Column(name = "item_count", nullable = false, insertable = false, updatable = false)
+    private int itemCount;
 
     public ShoppingCart(User user) {
         this.user = user;
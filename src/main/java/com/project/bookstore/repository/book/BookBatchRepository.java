@@ -0,0 +1,14 @@
+package com.project.bookstore.repository.book;
+
+import com.project.bookstore.dto.book.CreateBookRequestDto;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface BookBatchRepository {
+    Set<String> findExistingIsbns(Collection<String> isbns);
+
+    Set<Long> findExistingCategoryIds(Collection<Long> categoryIds);
+
+    void insertAll(List<CreateBookRequestDto> books);
+}
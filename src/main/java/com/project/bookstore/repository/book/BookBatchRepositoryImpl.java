@@ -0,0 +1,75 @@
+package com.project.bookstore.repository.book;
+
+import com.project.bookstore.dto.book.CreateBookRequestDto;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+public class BookBatchRepositoryImpl implements BookBatchRepository {
+    private static final String INSERT_BOOK = "INSERT INTO books "
+            + "(title, author, isbn, price, description, cover_image) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BOOK_CATEGORY = "INSERT INTO book_category "
+            + "(book_id, category_id) "
+            + "SELECT b.id, ? FROM books b WHERE b.isbn = ?";
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        if (isbns.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT b.isbn FROM books b WHERE b.isbn IN (:isbns)",
+                Map.of("isbns", isbns),
+                String.class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Long> findExistingCategoryIds(Collection<Long> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT c.id FROM categories c "
+                        + "WHERE c.is_deleted = false AND c.id IN (:ids)",
+                Map.of("ids", categoryIds),
+                Long.class));
+    }
+
+    /**
+     * Inserts the books and their category links with two JDBC batches in one
+     * transaction. Category links are resolved by ISBN, so generated ids do not
+     * have to be read back from the driver.
+     */
+    @Override
+    @Transactional
+    public void insertAll(List<CreateBookRequestDto> books) {
+        jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_BOOK, books, books.size(),
+                (ps, book) -> {
+                    ps.setString(1, book.title());
+                    ps.setString(2, book.author());
+                    ps.setString(3, book.isbn());
+                    ps.setBigDecimal(4, book.price());
+                    ps.setString(5, book.description());
+                    ps.setString(6, book.coverImage());
+                });
+        List<Object[]> bookCategories = books.stream()
+                .flatMap(book -> book.categoryIds()
+                        .stream()
+                        .distinct()
+                        .map(categoryId -> new Object[]{categoryId, book.isbn()}))
+                .toList();
+        if (!bookCategories.isEmpty()) {
+            jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_BOOK_CATEGORY, bookCategories);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.project.bookstore.repository.book;
+
+import com.project.bookstore.dto.book.BookCursorKey;
+import com.project.bookstore.exception.InvalidCursorException;
+import com.project.bookstore.model.Book;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Position in a book listing sorted by one property with the id as a tie-breaker.
+ * Clients receive it as an opaque URL-safe string and send it back to get the next slice.
+ */
+public record BookCursor(
+        String property,
+        Sort.Direction direction,
+        Comparable<?> value,
+        Long id) {
+    private static final String ID = "id";
+    private static final String SEPARATOR = "|";
+    private static final Map<String, Function<String, Comparable<?>>> PARSERS = Map.of(
+            ID, Long::valueOf,
+            "title", value -> value,
+            "author", value -> value,
+            "price", BigDecimal::new);
+    private static final Map<String, Function<BookCursorKey, Comparable<?>>> EXTRACTORS = Map.of(
+            ID, BookCursorKey::id,
+            "title", BookCursorKey::title,
+            "author", BookCursorKey::author,
+            "price", BookCursorKey::price);
+
+    public static BookCursor first(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.isEmpty()) {
+            return new BookCursor(ID, Sort.Direction.ASC, null, null);
+        }
+        if (orders.size() > 1) {
+            throw new InvalidCursorException("Only one sort property is supported: " + sort);
+        }
+        Sort.Order order = orders.get(0);
+        if (!PARSERS.containsKey(order.getProperty())) {
+            throw new InvalidCursorException("Unsupported sort property: " + order.getProperty());
+        }
+        return new BookCursor(order.getProperty(), order.getDirection(), null, null);
+    }
+
+    public static BookCursor decode(String cursor) {
+        try {
+            String decoded = new String(
+                    Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(Pattern.quote(SEPARATOR), 4);
+            if (parts.length != 4 || !PARSERS.containsKey(parts[0])) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return new BookCursor(
+                    parts[0],
+                    Sort.Direction.fromString(parts[1]),
+                    PARSERS.get(parts[0]).apply(parts[3]),
+                    Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public BookCursor after(BookCursorKey last) {
+        return new BookCursor(property, direction, EXTRACTORS.get(property).apply(last), last.id());
+    }
+
+    public String encode() {
+        String cursor = String.join(SEPARATOR,
+                property, direction.name(), String.valueOf(id), String.valueOf(value));
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Sort toSort() {
+        Sort sort = Sort.by(direction, property);
+        return ID.equals(property) ? sort : sort.and(Sort.by(direction, ID));
+    }
+
+    public Specification<Book> toSpecification() {
+        if (id == null) {
+            return Specification.where(null);
+        }
+        return (root, query, criteriaBuilder) -> {
+            Predicate afterId = after(criteriaBuilder, root.get(ID), id);
+            if (ID.equals(property)) {
+                return afterId;
+            }
+            Expression<Comparable<Object>> key = root.get(property);
+            return criteriaBuilder.or(
+                    after(criteriaBuilder, key, value),
+                    criteriaBuilder.and(criteriaBuilder.equal(key, value), afterId));
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate after(CriteriaBuilder criteriaBuilder, Expression key, Comparable value) {
+        return direction.isAscending()
+                ? criteriaBuilder.greaterThan(key, value)
+                : criteriaBuilder.lessThan(key, value);
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.bookstore.repository.book;
+
+import com.project.bookstore.dto.book.BookDto;
+import com.project.bookstore.dto.book.BookSummaryDto;
+import com.project.bookstore.dto.book.BookWithoutCategoryIdsDto;
+import com.project.bookstore.model.Book;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface BookProjectionRepository {
+    Page<BookDto> findAllBookDtos(Specification<Book> spec, Pageable pageable);
+
+    List<BookDto> findAllBookDtosByIdIn(Collection<Long> ids);
+
+    Page<BookSummaryDto> findAllBookSummaries(Specification<Book> spec, Pageable pageable);
+
+    Slice<BookDto> findBookDtoSlice(Specification<Book> spec, BookCursor cursor, int size);
+
+    Slice<BookWithoutCategoryIdsDto> findBookSliceByCategoryId(
+            Long categoryId,
+            BookCursor cursor,
+            int size);
+}
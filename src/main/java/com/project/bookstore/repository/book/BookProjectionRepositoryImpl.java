@@ -0,0 +1,179 @@
+package com.project.bookstore.repository.book;
+
+import com.project.bookstore.dto.book.BookDto;
+import com.project.bookstore.dto.book.BookSummaryDto;
+import com.project.bookstore.dto.book.BookWithoutCategoryIdsDto;
+import com.project.bookstore.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+public class BookProjectionRepositoryImpl implements BookProjectionRepository {
+    private static final String[] BOOK_DTO_ATTRIBUTES = {
+            "id", "title", "author", "isbn", "price", "description", "coverImage"};
+    private static final String[] BOOK_SUMMARY_ATTRIBUTES = {
+            "id", "title", "author", "isbn", "price", "coverImage"};
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookDto> findAllBookDtos(Specification<Book> spec, Pageable pageable) {
+        Page<BookWithoutCategoryIdsDto> page = findAll(
+                spec, pageable, BookWithoutCategoryIdsDto.class, BOOK_DTO_ATTRIBUTES);
+        Map<Long, Set<Long>> categoryIds = findCategoryIds(
+                page.map(BookWithoutCategoryIdsDto::id).toList());
+        return page.map(book -> toBookDto(book, categoryIds));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookDto> findAllBookDtosByIdIn(Collection<Long> ids) {
+        Specification<Book> withIds = (root, query, criteriaBuilder) -> root.get("id").in(ids);
+        return findAllBookDtos(withIds, Pageable.unpaged()).getContent();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookSummaryDto> findAllBookSummaries(
+            Specification<Book> spec,
+            Pageable pageable) {
+        return findAll(spec, pageable, BookSummaryDto.class, BOOK_SUMMARY_ATTRIBUTES);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookDto> findBookDtoSlice(
+            Specification<Book> spec,
+            BookCursor cursor,
+            int size) {
+        Slice<BookWithoutCategoryIdsDto> slice = findSlice(
+                spec, cursor, size, BookWithoutCategoryIdsDto.class, BOOK_DTO_ATTRIBUTES);
+        Map<Long, Set<Long>> categoryIds = findCategoryIds(
+                slice.map(BookWithoutCategoryIdsDto::id).toList());
+        return slice.map(book -> toBookDto(book, categoryIds));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookWithoutCategoryIdsDto> findBookSliceByCategoryId(
+            Long categoryId,
+            BookCursor cursor,
+            int size) {
+        Specification<Book> inCategory = (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.join("categories").get("id"), categoryId);
+        return findSlice(
+                inCategory, cursor, size, BookWithoutCategoryIdsDto.class, BOOK_DTO_ATTRIBUTES);
+    }
+
+    private <T> Page<T> findAll(
+            Specification<Book> spec,
+            Pageable pageable,
+            Class<T> resultClass,
+            String... attributes) {
+        TypedQuery<T> query = createQuery(spec, pageable.getSort(), resultClass, attributes);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(
+                query.getResultList(), pageable, () -> count(spec));
+    }
+
+    private <T> Slice<T> findSlice(
+            Specification<Book> spec,
+            BookCursor cursor,
+            int size,
+            Class<T> resultClass,
+            String... attributes) {
+        Sort sort = cursor.toSort();
+        List<T> content = createQuery(
+                spec.and(cursor.toSpecification()), sort, resultClass, attributes)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = content.size() > size;
+        return new SliceImpl<>(
+                hasNext ? content.subList(0, size) : content,
+                PageRequest.of(0, size, sort),
+                hasNext);
+    }
+
+    private <T> TypedQuery<T> createQuery(
+            Specification<Book> spec,
+            Sort sort,
+            Class<T> resultClass,
+            String... attributes) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(resultClass);
+        Root<Book> root = query.from(Book.class);
+        query.select(criteriaBuilder.construct(resultClass, Arrays.stream(attributes)
+                .map(root::get)
+                .toArray(Selection[]::new)));
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Book> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(criteriaBuilder.count(root));
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private BookDto toBookDto(BookWithoutCategoryIdsDto book, Map<Long, Set<Long>> categoryIds) {
+        return new BookDto(
+                book.id(),
+                book.title(),
+                book.author(),
+                book.isbn(),
+                book.price(),
+                book.description(),
+                book.coverImage(),
+                categoryIds.getOrDefault(book.id(), Set.of()));
+    }
+
+    private Map<Long, Set<Long>> findCategoryIds(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT b.id, c.id FROM Book b JOIN b.categories c WHERE b.id IN :ids",
+                        Object[].class)
+                .setParameter("ids", bookIds)
+                .getResultList();
+        return rows.stream()
+                .collect(Collectors.groupingBy(
+                        row -> (Long) row[0],
+                        Collectors.mapping(row -> (Long) row[1], Collectors.toSet())));
+    }
+}
@@ -1,11 +1,30 @@
 package com.project.bookstore.repository.book;
 
 import com.project.bookstore.model.Book;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+public interface BookRepository extends JpaRepository<Book, Long>,
+        JpaSpecificationExecutor<Book>,
+        BookProjectionRepository,
+        BookBatchRepository {
     Page<Book> findAllByCategoriesId(Long categoryId, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "categories")
+    Optional<Book> findById(Long id);
+
+    @Query(value = "SELECT b.id FROM books b "
+            + "WHERE b.is_deleted = false "
+            + "AND MATCH(b.title, b.author) AGAINST(:query IN BOOLEAN MODE) "
+            + "ORDER BY MATCH(b.title, b.author) AGAINST(:query IN BOOLEAN MODE) DESC, b.id",
+            nativeQuery = true)
+    List<Long> findIdsByFullTextQuery(@Param("query") String query, Pageable pageable);
 }
@@ -4,6 +4,7 @@ import com.project.bookstore.dto.book.BookSearchParameters;
 import com.project.bookstore.model.Book;
 import com.project.bookstore.repository.SpecificationBuilder;
 import com.project.bookstore.repository.SpecificationProviderManager;
+import java.math.BigDecimal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
@@ -31,6 +32,13 @@ public class BookSpecificationBuilder implements SpecificationBuilder<Book, Book
                     .getSpecificationProvider("price")
                     .getSpecification(searchParameters.prices()));
         }
+        if (searchParameters.minPrice() != null || searchParameters.maxPrice() != null) {
+            spec = spec.and(bookSpecificationProviderManager
+                    .getSpecificationProvider("priceRange")
+                    .getSpecification(new String[]{
+                            toPlainString(searchParameters.minPrice()),
+                            toPlainString(searchParameters.maxPrice())}));
+        }
         if (searchParameters.isbns() != null && searchParameters.isbns().length > 0) {
             spec = spec.and(bookSpecificationProviderManager
                     .getSpecificationProvider("isbn")
@@ -38,4 +46,8 @@ public class BookSpecificationBuilder implements SpecificationBuilder<Book, Book
         }
         return spec;
     }
+
+    private String toPlainString(BigDecimal price) {
+        return price != null ? price.toPlainString() : null;
+    }
 }
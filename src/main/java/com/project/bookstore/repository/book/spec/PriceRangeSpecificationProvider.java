@@ -0,0 +1,34 @@
+package com.project.bookstore.repository.book.spec;
+
+import com.project.bookstore.model.Book;
+import com.project.bookstore.repository.SpecificationProvider;
+import jakarta.persistence.criteria.Path;
+import java.math.BigDecimal;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PriceRangeSpecificationProvider implements SpecificationProvider<Book> {
+    private static final String KEY = "priceRange";
+    private static final String FIELD = "price";
+
+    @Override
+    public String getKey() {
+        return KEY;
+    }
+
+    @Override
+    public Specification<Book> getSpecification(String[] params) {
+        BigDecimal min = params[0] != null ? new BigDecimal(params[0]) : null;
+        BigDecimal max = params[1] != null ? new BigDecimal(params[1]) : null;
+        return ((root, query, criteriaBuilder) -> {
+            Path<BigDecimal> price = root.get(FIELD);
+            if (min != null && max != null) {
+                return criteriaBuilder.between(price, min, max);
+            }
+            return min != null
+                    ? criteriaBuilder.greaterThanOrEqualTo(price, min)
+                    : criteriaBuilder.lessThanOrEqualTo(price, max);
+        });
+    }
+}
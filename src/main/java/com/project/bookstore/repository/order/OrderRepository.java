@@ -1,7 +1,12 @@
 package com.project.bookstore.repository.order;
 
 import com.project.bookstore.model.Order;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,17 +14,41 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    @Query("SELECT o FROM Order o "
+    @Query("SELECT o.id FROM Order o "
             + "JOIN o.user u "
-            + "LEFT JOIN FETCH o.orderItems "
             + "WHERE u.email = :email")
-    Page<Order> findAllWithItemsByUserEmail(
+    Page<Long> findIdsByUserEmail(
             @Param("email") String email,
             Pageable pageable);
 
+    @Query("SELECT o FROM Order o "
+            + "LEFT JOIN FETCH o.orderItems "
+            + "WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Loads a page of the user's orders with their items in two queries. The page
+     * of order ids is selected without the collection join so that limit and offset
+     * stay in SQL, then the items of the orders on the page are fetched by id.
+     */
+    default Page<Order> findAllWithItemsByUserEmail(String email, Pageable pageable) {
+        Page<Long> ids = findIdsByUserEmail(email, pageable);
+        Map<Long, Order> orders = ids.hasContent()
+                ? findAllWithItemsByIdIn(ids.getContent())
+                        .stream()
+                        .collect(Collectors.toMap(Order::getId, Function.identity()))
+                : Map.of();
+        return ids.map(orders::get);
+    }
+
     @Query("SELECT o FROM Order o "
             + "LEFT JOIN FETCH o.orderItems "
             + "JOIN FETCH o.user "
             + "WHERE o.id = :id")
     Optional<Order> findWithItemsAndUserById(@Param("id") Long id);
+
+    @Query("SELECT u.email FROM Order o "
+            + "JOIN o.user u "
+            + "WHERE o.id = :id")
+    Optional<String> findUserEmailById(@Param("id") Long id);
 }
@@ -1,7 +1,45 @@
 package com.project.bookstore.repository.order.item;
 
+import com.project.bookstore.dto.order.item.OrderItemDto;
 import com.project.bookstore.model.OrderItem;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO order_items (order_id, book_id, quantity, price) "
+            + "SELECT :orderId, ci.book_id, ci.quantity, b.price * ci.quantity "
+            + "FROM cart_items ci "
+            + "JOIN books b ON b.id = ci.book_id "
+            + "WHERE ci.shopping_cart_id = :shoppingCartId "
+            + "AND ci.is_deleted = false "
+            + "AND b.is_deleted = false",
+            nativeQuery = true)
+    int insertAllFromShoppingCart(
+            @Param("orderId") Long orderId,
+            @Param("shoppingCartId") Long shoppingCartId);
+
+    List<OrderItem> findAllByOrderId(Long orderId);
+
+    @Query("SELECT COALESCE(SUM(oi.price), 0) FROM OrderItem oi "
+            + "WHERE oi.order.id = :orderId")
+    BigDecimal sumPriceByOrderId(@Param("orderId") Long orderId);
+
+    @Query("SELECT new com.project.bookstore.dto.order.item.OrderItemDto("
+            + "oi.id, oi.book.id, oi.quantity) "
+            + "FROM OrderItem oi "
+            + "JOIN oi.order o "
+            + "JOIN o.user u "
+            + "WHERE oi.id = :id "
+            + "AND o.id = :orderId "
+            + "AND u.email = :email")
+    Optional<OrderItemDto> findDtoByIdAndOrderIdAndUserEmail(
+            @Param("id") Long id,
+            @Param("orderId") Long orderId,
+            @Param("email") String email);
 }
@@ -0,0 +1,17 @@
+package com.project.bookstore.repository.order.key;
+
+import com.project.bookstore.model.OrderIdempotencyKey;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, Long> {
+    @Query("SELECT k FROM OrderIdempotencyKey k "
+            + "JOIN k.user u "
+            + "WHERE u.email = :email "
+            + "AND k.idempotencyKey = :idempotencyKey")
+    Optional<OrderIdempotencyKey> findByUserEmailAndIdempotencyKey(
+            @Param("email") String email,
+            @Param("idempotencyKey") String idempotencyKey);
+}
@@ -1,21 +1,57 @@
 package com.project.bookstore.repository.shopping.cart;
 
 import com.project.bookstore.model.ShoppingCart;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long> {
     @Query("SELECT sc FROM ShoppingCart sc "
-            + "JOIN sc.user u "
-            + "WHERE u.email = :email")
-    Optional<ShoppingCart> findByUserEmail(@Param("email") String email);
+            + "WHERE sc.user.id = :userId")
+    Optional<ShoppingCart> findByUserId(@Param("userId") Long userId);
 
     @Query("SELECT sc FROM ShoppingCart sc "
-            + "JOIN sc.user u "
             + "LEFT JOIN FETCH sc.cartItems ci "
             + "LEFT JOIN FETCH ci.book b "
-            + "WHERE u.email = :email")
-    Optional<ShoppingCart> findWithCartItemsByUserEmail(@Param("email") String email);
+            + "WHERE sc.user.id = :userId")
+    Optional<ShoppingCart> findWithCartItemsByUserId(@Param("userId") Long userId);
+
+    @Query(value = "SELECT sc.id FROM shopping_carts sc "
+            + "WHERE sc.id IN (:ids) "
+            + "ORDER BY sc.id "
+            + "FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT sc.id FROM ShoppingCart sc "
+            + "WHERE sc.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    @Query(value = "SELECT DISTINCT ci.shopping_cart_id FROM cart_items ci "
+            + "WHERE ci.book_id = :bookId "
+            + "AND ci.is_deleted = false",
+            nativeQuery = true)
+    List<Long> findIdsByBookId(@Param("bookId") Long bookId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE shopping_carts sc SET "
+            + "total = (SELECT COALESCE(SUM(b.price * ci.quantity), 0) "
+            + "FROM cart_items ci "
+            + "JOIN books b ON b.id = ci.book_id "
+            + "WHERE ci.shopping_cart_id = sc.id "
+            + "AND ci.is_deleted = false "
+            + "AND b.is_deleted = false), "
+            + "item_count = (SELECT COALESCE(SUM(ci.quantity), 0) "
+            + "FROM cart_items ci "
+            + "JOIN books b ON b.id = ci.book_id "
+            + "WHERE ci.shopping_cart_id = sc.id "
+            + "AND ci.is_deleted = false "
+            + "AND b.is_deleted = false) "
+            + "WHERE sc.id IN (:ids)",
+            nativeQuery = true)
+    int updateTotalsByIdIn(@Param("ids") Collection<Long> ids);
 }
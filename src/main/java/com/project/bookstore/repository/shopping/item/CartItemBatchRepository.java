@@ -0,0 +1,11 @@
+package com.project.bookstore.repository.shopping.item;
+
+import com.project.bookstore.dto.shopping.item.CreateCartItemRequestDto;
+import java.util.List;
+import java.util.Map;
+
+public interface CartItemBatchRepository {
+    void upsertAll(Long shoppingCartId, List<CreateCartItemRequestDto> items);
+
+    void updateQuantities(Map<Long, Integer> quantitiesById);
+}
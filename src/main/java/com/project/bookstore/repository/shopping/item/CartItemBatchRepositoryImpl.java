@@ -0,0 +1,47 @@
+package com.project.bookstore.repository.shopping.item;
+
+import com.project.bookstore.dto.shopping.item.CreateCartItemRequestDto;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+public class CartItemBatchRepositoryImpl implements CartItemBatchRepository {
+    private static final String UPSERT_CART_ITEM = "INSERT INTO cart_items "
+            + "(shopping_cart_id, book_id, quantity, is_deleted) "
+            + "VALUES (?, ?, ?, false) "
+            + "ON DUPLICATE KEY UPDATE quantity = quantity + ?";
+    private static final String UPDATE_QUANTITY = "UPDATE cart_items SET quantity = ? "
+            + "WHERE id = ? AND is_deleted = false";
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the items to the cart with one JDBC batch. A book that is already in
+     * the cart hits the unique (shopping_cart_id, active_book_id) key and gets
+     * its quantity increased instead of a second row.
+     */
+    @Override
+    @Transactional
+    public void upsertAll(Long shoppingCartId, List<CreateCartItemRequestDto> items) {
+        jdbcTemplate.getJdbcOperations().batchUpdate(UPSERT_CART_ITEM, items, items.size(),
+                (ps, item) -> {
+                    ps.setLong(1, shoppingCartId);
+                    ps.setLong(2, item.bookId());
+                    ps.setInt(3, item.quantity());
+                    ps.setInt(4, item.quantity());
+                });
+    }
+
+    @Override
+    @Transactional
+    public void updateQuantities(Map<Long, Integer> quantitiesById) {
+        jdbcTemplate.getJdbcOperations().batchUpdate(UPDATE_QUANTITY,
+                List.copyOf(quantitiesById.entrySet()), quantitiesById.size(),
+                (ps, entry) -> {
+                    ps.setInt(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                });
+    }
+}
@@ -1,7 +1,67 @@
 package com.project.bookstore.repository.shopping.item;
 
+import com.project.bookstore.dto.shopping.item.CartItemWithoutBookTitleDto;
 import com.project.bookstore.model.CartItem;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+public interface CartItemRepository extends JpaRepository<CartItem, Long>,
+        CartItemBatchRepository {
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.isDeleted = true "
+            + "WHERE ci.shoppingCart.id = :shoppingCartId "
+            + "AND ci.isDeleted = false")
+    int deleteAllByShoppingCartId(@Param("shoppingCartId") Long shoppingCartId);
+
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.quantity = :quantity "
+            + "WHERE ci.id = :id "
+            + "AND ci.isDeleted = false "
+            + "AND ci.shoppingCart.id IN ("
+            + "SELECT sc.id FROM ShoppingCart sc WHERE sc.user.id = :userId)")
+    int updateQuantityByIdAndUserId(
+            @Param("id") Long id,
+            @Param("userId") Long userId,
+            @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.isDeleted = true "
+            + "WHERE ci.id = :id "
+            + "AND ci.isDeleted = false "
+            + "AND ci.shoppingCart.id IN ("
+            + "SELECT sc.id FROM ShoppingCart sc WHERE sc.user.id = :userId)")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.isDeleted = true "
+            + "WHERE ci.id IN :ids "
+            + "AND ci.isDeleted = false")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.project.bookstore.dto.shopping.item.CartItemWithoutBookTitleDto("
+            + "ci.id, ci.book.id, ci.quantity) "
+            + "FROM CartItem ci "
+            + "WHERE ci.id = :id")
+    Optional<CartItemWithoutBookTitleDto> findWithoutBookTitleDtoById(@Param("id") Long id);
+
+    @Query("SELECT new com.project.bookstore.dto.shopping.item.CartItemWithoutBookTitleDto("
+            + "ci.id, ci.book.id, ci.quantity) "
+            + "FROM CartItem ci "
+            + "WHERE ci.shoppingCart.id = :shoppingCartId")
+    List<CartItemWithoutBookTitleDto> findWithoutBookTitleDtosByShoppingCartId(
+            @Param("shoppingCartId") Long shoppingCartId);
+
+    @Query("SELECT new com.project.bookstore.dto.shopping.item.CartItemWithoutBookTitleDto("
+            + "ci.id, ci.book.id, ci.quantity) "
+            + "FROM CartItem ci "
+            + "WHERE ci.shoppingCart.id = :shoppingCartId "
+            + "AND ci.book.id IN :bookIds")
+    List<CartItemWithoutBookTitleDto> findWithoutBookTitleDtosByShoppingCartIdAndBookIdIn(
+            @Param("shoppingCartId") Long shoppingCartId,
+            @Param("bookIds") Collection<Long> bookIds);
 }
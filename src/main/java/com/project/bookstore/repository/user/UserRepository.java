@@ -1,9 +1,17 @@
 package com.project.bookstore.repository.user;
 
+import com.project.bookstore.config.CacheConfig;
 import com.project.bookstore.model.User;
 import java.util.Optional;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @Cacheable(cacheNames = CacheConfig.ROLE_VERSIONS, unless = "#result == null")
+    @Query("SELECT u.roleVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findRoleVersionById(@Param("id") Long id);
 }
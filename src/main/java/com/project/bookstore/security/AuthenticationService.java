@@ -2,7 +2,9 @@ package com.project.bookstore.security;
 
 import com.project.bookstore.dto.user.UserLoginRequestDto;
 import com.project.bookstore.dto.user.UserLoginResponseDto;
+import com.project.bookstore.model.User;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -13,6 +15,8 @@ import org.springframework.stereotype.Service;
 public class AuthenticationService {
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    @Value("${bookstore.security.jwt.stateless-authorities:false}")
+    private boolean statelessAuthorities;
 
     public UserLoginResponseDto authenticate(UserLoginRequestDto requestDto) {
         final Authentication authentication = authenticationManager.authenticate(
@@ -20,7 +24,10 @@ public class AuthenticationService {
                         requestDto.email(),
                         requestDto.password())
         );
-        String token = jwtUtil.generateToken(authentication.getName());
+        String token = statelessAuthorities
+                && authentication.getPrincipal() instanceof User user
+                ? jwtUtil.generateToken(user)
+                : jwtUtil.generateToken(authentication.getName());
         return new UserLoginResponseDto(token);
     }
 }
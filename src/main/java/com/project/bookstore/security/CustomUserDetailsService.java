@@ -1,7 +1,9 @@
 package com.project.bookstore.security;
 
+import com.project.bookstore.config.CacheConfig;
 import com.project.bookstore.repository.user.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -19,4 +21,15 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "Can't find user by email: " + email));
     }
+
+    /**
+     * Resolves the principal for an already issued token. Login keeps using
+     * {@link #loadUserByUsername(String)} so credentials are always checked
+     * against the database.
+     */
+    @Cacheable(cacheNames = CacheConfig.PRINCIPALS)
+    public UserDetails loadCachedUserByUsername(String email)
+            throws UsernameNotFoundException {
+        return loadUserByUsername(email);
+    }
 }
@@ -1,16 +1,25 @@
 package com.project.bookstore.security;
 
+import com.project.bookstore.model.Role;
+import com.project.bookstore.model.User;
+import com.project.bookstore.repository.user.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,8 +27,14 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    public static final String AUTHENTICATION_TIMER = "bookstore.security.jwt.authentication";
+    private static final String OUTCOME_TAG = "outcome";
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    @Value("${bookstore.security.jwt.stateless-authorities:false}")
+    private boolean statelessAuthorities;
 
     @Override
     protected void doFilterInternal(
@@ -28,19 +43,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
         String token = getToken(request);
-        if (token != null && jwtUtil.isValidToken(token)) {
-            String username = jwtUtil.getUsername(token);
-            UserDetails userDetails = userDetailsService
-                    .loadUserByUsername(username);
-            Authentication authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null,
-                    userDetails.getAuthorities());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (token != null) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "error";
+            try {
+                outcome = authenticate(token) ? "authenticated" : "rejected";
+            } finally {
+                sample.stop(meterRegistry.timer(AUTHENTICATION_TIMER, OUTCOME_TAG, outcome));
+            }
         }
         filterChain.doFilter(request, response);
     }
 
+    private boolean authenticate(String token) {
+        Claims claims = jwtUtil.getVerifiedClaims(token);
+        UserDetails userDetails = statelessAuthorities && hasAuthorityClaims(claims)
+                ? getUserFromClaims(claims)
+                : userDetailsService.loadCachedUserByUsername(claims.getSubject());
+        if (userDetails == null) {
+            return false;
+        }
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return true;
+    }
+
     private String getToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -48,4 +78,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    private boolean hasAuthorityClaims(Claims claims) {
+        return claims.containsKey(JwtUtil.USER_ID_CLAIM)
+                && claims.containsKey(JwtUtil.ROLES_CLAIM)
+                && claims.containsKey(JwtUtil.ROLE_VERSION_CLAIM);
+    }
+
+    private User getUserFromClaims(Claims claims) {
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        Integer roleVersion = claims.get(JwtUtil.ROLE_VERSION_CLAIM, Integer.class);
+        boolean isActual = userRepository.findRoleVersionById(userId)
+                .filter(currentVersion -> Objects.equals(currentVersion, roleVersion))
+                .isPresent();
+        if (!isActual) {
+            return null;
+        }
+        List<?> roleNames = claims.get(JwtUtil.ROLES_CLAIM, List.class);
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(claims.getSubject());
+        user.setRoleVersion(roleVersion);
+        user.setRoles(roleNames.stream()
+                .map(Object::toString)
+                .map(this::toRole)
+                .collect(Collectors.toSet()));
+        return user;
+    }
+
+    private Role toRole(String roleName) {
+        Role role = new Role();
+        role.setRoleName(Role.RoleName.valueOf(roleName));
+        return role;
+    }
 }
@@ -1,57 +1,147 @@
 package com.project.bookstore.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.project.bookstore.model.Role;
+import com.project.bookstore.model.User;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
-import java.time.Instant;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtUtil {
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String ROLE_VERSION_CLAIM = "rv";
     private static final Long EXPIRATION = 300000L;
-    private static final Key SECRET = Keys
+    private static final SecretKey SECRET = Keys
             .hmacShaKeyFor(("asdfasdfasdfDFDFtesajsdgfajsdgfj1243adgshf")
                     .getBytes(StandardCharsets.UTF_8));
+    private final Clock clock;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedTokens;
+
+    @Autowired
+    public JwtUtil(
+            @Value("${bookstore.security.jwt.verified-token-cache-size:10000}")
+            long verifiedTokenCacheSize) {
+        this(verifiedTokenCacheSize, Clock.systemUTC());
+    }
+
+    JwtUtil(long verifiedTokenCacheSize, Clock clock) {
+        this.clock = clock;
+        this.parser = Jwts.parser()
+                .verifyWith(SECRET)
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+        this.verifiedTokens = verifiedTokenCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedTokenCacheSize)
+                        .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                        .expireAfter(new UntilTokenExpiration())
+                        .build()
+                : null;
+    }
 
     public String generateToken(String username) {
         return Jwts.builder()
                 .subject(username)
-                .issuedAt(Date.from(Instant.now()))
-                .expiration(Date.from(Instant.now().plusMillis(EXPIRATION)))
+                .issuedAt(Date.from(clock.instant()))
+                .expiration(Date.from(clock.instant().plusMillis(EXPIRATION)))
+                .signWith(SECRET)
+                .compact();
+    }
+
+    public String generateToken(User user) {
+        return Jwts.builder()
+                .subject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, user.getRoles()
+                        .stream()
+                        .map(Role::getRoleName)
+                        .map(Role.RoleName::name)
+                        .toList())
+                .claim(ROLE_VERSION_CLAIM, user.getRoleVersion())
+                .issuedAt(Date.from(clock.instant()))
+                .expiration(Date.from(clock.instant().plusMillis(EXPIRATION)))
                 .signWith(SECRET)
                 .compact();
     }
 
-    public boolean isValidToken(String token) {
+    /**
+     * Verifies the signature and expiration of the token once and returns its
+     * claims. Verified tokens are remembered by their SHA-256 hash until they
+     * expire, so repeated requests with the same token skip the HMAC check.
+     * The cache and the parser share one clock, so an expired token is never
+     * served from the cache.
+     */
+    public Claims getVerifiedClaims(String token) {
+        if (verifiedTokens == null) {
+            return parse(token);
+        }
+        return verifiedTokens.get(hash(token), tokenHash -> parse(token));
+    }
+
+    private Claims parse(String token) {
         try {
-            Jws<Claims> claimsJws = Jwts.parser()
-                    .setSigningKey(SECRET)
-                    .build()
-                    .parseClaimsJws(token);
-            return !claimsJws.getBody().getExpiration().before(new Date());
+            return parser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException e) {
             throw new RuntimeException("Expired or invalid JWT token: " + token);
         }
     }
 
-    public String getUsername(String token) {
-        return getClaimsFromToken(token, Claims::getSubject);
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
     }
 
-    private <T> T getClaimsFromToken(
-            String token,
-            Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parser()
-                .setSigningKey(SECRET)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+    private static class UntilTokenExpiration implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String tokenHash, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            long nanosToExpiration =
+                    TimeUnit.MILLISECONDS.toNanos(expiration.getTime()) - currentTime;
+            return Math.max(nanosToExpiration, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(
+                String tokenHash,
+                Claims claims,
+                long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(
+                String tokenHash,
+                Claims claims,
+                long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,32 @@
+package com.project.bookstore.security;
+
+import com.project.bookstore.config.CacheConfig;
+import com.project.bookstore.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+    private final ObjectProvider<CacheManager> cacheManagerProvider;
+
+    @PostUpdate
+    @PostRemove
+    public void evictPrincipal(User user) {
+        evict(CacheConfig.PRINCIPALS, user.getEmail());
+        evict(CacheConfig.ROLE_VERSIONS, user.getId());
+    }
+
+    private void evict(String cacheName, Object key) {
+        CacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+        Cache cache = cacheManager != null ? cacheManager.getCache(cacheName) : null;
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+}
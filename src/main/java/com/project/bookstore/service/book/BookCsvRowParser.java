@@ -0,0 +1,113 @@
+package com.project.bookstore.service.book;
+
+import com.project.bookstore.dto.book.CreateBookRequestDto;
+import com.project.bookstore.exception.BookImportException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses single-line CSV rows into books using the column order of the header
+ * row. Values may be quoted, and category ids are separated by semicolons.
+ */
+class BookCsvRowParser {
+    private static final Set<String> COLUMNS = Set.of(
+            "title", "author", "isbn", "price", "description", "coverImage", "categoryIds");
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final String CATEGORY_IDS_SEPARATOR = ";";
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+
+    BookCsvRowParser(String header) {
+        if (header == null || header.isBlank()) {
+            throw new BookImportException("CSV header row is missing");
+        }
+        List<String> columns = split(header);
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i).strip();
+            if (!COLUMNS.contains(column)) {
+                throw new BookImportException("Unknown CSV column: " + column);
+            }
+            if (columnIndexes.put(column, i) != null) {
+                throw new BookImportException("Duplicate CSV column: " + column);
+            }
+        }
+    }
+
+    CreateBookRequestDto parse(String line) {
+        List<String> values = split(line);
+        if (values.size() != columnIndexes.size()) {
+            throw new IllegalArgumentException("Expected " + columnIndexes.size()
+                    + " values but found " + values.size());
+        }
+        return new CreateBookRequestDto(
+                value(values, "title"),
+                value(values, "author"),
+                value(values, "isbn"),
+                toPrice(value(values, "price")),
+                value(values, "description"),
+                value(values, "coverImage"),
+                toCategoryIds(value(values, "categoryIds")));
+    }
+
+    private String value(List<String> values, String column) {
+        Integer index = columnIndexes.get(column);
+        if (index == null || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    private BigDecimal toPrice(String price) {
+        try {
+            return price != null ? new BigDecimal(price.strip()) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price: Invalid number " + price);
+        }
+    }
+
+    private List<Long> toCategoryIds(String categoryIds) {
+        if (categoryIds == null || categoryIds.isBlank()) {
+            return List.of();
+        }
+        try {
+            return Arrays.stream(categoryIds.split(CATEGORY_IDS_SEPARATOR))
+                    .map(String::strip)
+                    .map(Long::valueOf)
+                    .toList();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("categoryIds: Invalid ids " + categoryIds);
+        }
+    }
+
+    private List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (quoted && c == QUOTE && i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                value.append(QUOTE);
+                i++;
+            } else if (c == QUOTE) {
+                quoted = !quoted;
+            } else if (c == SEPARATOR && !quoted) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+            i++;
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unclosed quote");
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
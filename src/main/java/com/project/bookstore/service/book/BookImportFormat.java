@@ -0,0 +1,6 @@
+package com.project.bookstore.service.book;
+
+public enum BookImportFormat {
+    NDJSON,
+    CSV
+}
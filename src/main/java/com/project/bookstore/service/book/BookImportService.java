@@ -0,0 +1,8 @@
+package com.project.bookstore.service.book;
+
+import com.project.bookstore.dto.book.BookImportResultDto;
+import java.io.InputStream;
+
+public interface BookImportService {
+    BookImportResultDto importBooks(InputStream inputStream, BookImportFormat format);
+}
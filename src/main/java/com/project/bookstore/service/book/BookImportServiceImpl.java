@@ -0,0 +1,167 @@
+package com.project.bookstore.service.book;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.project.bookstore.config.CacheConfig;
+import com.project.bookstore.dto.book.BookImportErrorDto;
+import com.project.bookstore.dto.book.BookImportResultDto;
+import com.project.bookstore.dto.book.CreateBookRequestDto;
+import com.project.bookstore.repository.book.BookRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+@RequiredArgsConstructor
+@Service
+public class BookImportServiceImpl implements BookImportService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private final BookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    @Value("${bookstore.books.import.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Reads the input line by line and writes valid rows in batches of
+     * {@code batchSize}, each batch in its own transaction. Only one batch and
+     * the isbns seen so far are kept in memory, and a failed batch does not
+     * roll back earlier ones.
+     */
+    @Override
+    @CacheEvict(
+            cacheNames = {CacheConfig.BOOK_PAGES, CacheConfig.CATEGORY_BOOK_PAGES},
+            allEntries = true)
+    public BookImportResultDto importBooks(InputStream inputStream, BookImportFormat format) {
+        ImportProgress progress = new ImportProgress();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            BookCsvRowParser csvRowParser = null;
+            if (format == BookImportFormat.CSV) {
+                csvRowParser = new BookCsvRowParser(reader.readLine());
+                lineNumber++;
+            }
+            ObjectReader jsonReader = objectMapper.readerFor(CreateBookRequestDto.class);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    CreateBookRequestDto book = csvRowParser != null
+                            ? csvRowParser.parse(line)
+                            : jsonReader.readValue(line);
+                    addRow(progress, new ImportRow(lineNumber, book));
+                } catch (JsonProcessingException e) {
+                    progress.reject(lineNumber, e.getOriginalMessage());
+                } catch (IllegalArgumentException e) {
+                    progress.reject(lineNumber, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cant read books import", e);
+        }
+        flush(progress);
+        return progress.toDto();
+    }
+
+    private void addRow(ImportProgress progress, ImportRow row) {
+        if (row.book() == null) {
+            progress.reject(row.line(), "Row is not a book");
+            return;
+        }
+        Set<ConstraintViolation<CreateBookRequestDto>> violations = validator.validate(row.book());
+        if (!violations.isEmpty()) {
+            progress.reject(row.line(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return;
+        }
+        if (!progress.seenIsbns.add(row.book().isbn())) {
+            progress.reject(row.line(), "Duplicate isbn in import: " + row.book().isbn());
+            return;
+        }
+        progress.batch.add(row);
+        if (progress.batch.size() >= batchSize) {
+            flush(progress);
+        }
+    }
+
+    private void flush(ImportProgress progress) {
+        List<ImportRow> rows = progress.batch;
+        progress.batch = new ArrayList<>();
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<String> existingIsbns = bookRepository.findExistingIsbns(rows.stream()
+                .map(row -> row.book().isbn())
+                .toList());
+        Set<Long> existingCategoryIds = bookRepository.findExistingCategoryIds(rows.stream()
+                .flatMap(row -> row.book().categoryIds().stream())
+                .collect(Collectors.toSet()));
+        List<ImportRow> validRows = new ArrayList<>();
+        for (ImportRow row : rows) {
+            Set<Long> missingCategoryIds = new HashSet<>(row.book().categoryIds());
+            missingCategoryIds.removeAll(existingCategoryIds);
+            if (existingIsbns.contains(row.book().isbn())) {
+                progress.reject(row.line(), "Book with isbn already exists: " + row.book().isbn());
+            } else if (!missingCategoryIds.isEmpty()) {
+                progress.reject(row.line(), "Cant find categories by ids: " + missingCategoryIds);
+            } else {
+                validRows.add(row);
+            }
+        }
+        if (validRows.isEmpty()) {
+            return;
+        }
+        try {
+            bookRepository.insertAll(validRows.stream()
+                    .map(ImportRow::book)
+                    .toList());
+            progress.imported += validRows.size();
+        } catch (DataAccessException e) {
+            String message = "Batch rolled back: " + e.getMostSpecificCause().getMessage();
+            validRows.forEach(row -> progress.reject(row.line(), message));
+        }
+    }
+
+    private record ImportRow(long line, CreateBookRequestDto book) {
+    }
+
+    private static class ImportProgress {
+        private final List<BookImportErrorDto> errors = new ArrayList<>();
+        private List<ImportRow> batch = new ArrayList<>();
+        private final Set<String> seenIsbns = new HashSet<>();
+        private long imported;
+        private long failed;
+
+        private void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportErrorDto(line, message));
+            }
+        }
+
+        private BookImportResultDto toDto() {
+            return new BookImportResultDto(imported, failed, errors);
+        }
+    }
+}
@@ -2,11 +2,14 @@ package com.project.bookstore.service.book;
 
 import com.project.bookstore.dto.book.BookDto;
 import com.project.bookstore.dto.book.BookSearchParameters;
+import com.project.bookstore.dto.book.BookSliceDto;
+import com.project.bookstore.dto.book.BookSummaryDto;
 import com.project.bookstore.dto.book.BookWithoutCategoryIdsDto;
 import com.project.bookstore.dto.book.CreateBookRequestDto;
 import jakarta.validation.Valid;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 public interface BookService {
     BookDto save(@Valid CreateBookRequestDto requestDto);
@@ -19,9 +22,29 @@ public interface BookService {
 
     List<BookDto> search(BookSearchParameters searchParameters, Pageable pageable);
 
+    List<BookDto> searchFullText(String query, Pageable pageable);
+
+    List<BookSummaryDto> findAllSummaries(
+            BookSearchParameters searchParameters,
+            Pageable pageable);
+
+    BookSliceDto<BookDto> scroll(String cursor, int size, Sort sort);
+
+    BookSliceDto<BookDto> scrollSearch(
+            BookSearchParameters searchParameters,
+            String cursor,
+            int size,
+            Sort sort);
+
     BookDto updateById(Long id, CreateBookRequestDto requestDto);
 
     void deleteById(Long id);
 
     List<BookWithoutCategoryIdsDto> findAllByCategoryId(Long id, Pageable pageable);
+
+    BookSliceDto<BookWithoutCategoryIdsDto> scrollByCategoryId(
+            Long id,
+            String cursor,
+            int size,
+            Sort sort);
 }
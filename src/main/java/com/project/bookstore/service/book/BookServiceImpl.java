@@ -1,35 +1,69 @@
 package com.project.bookstore.service.book;
 
+import com.project.bookstore.config.CacheConfig;
+import com.project.bookstore.config.MetricsConfig;
+import com.project.bookstore.config.ReadFromReplica;
+import com.project.bookstore.dto.book.BookCursorKey;
 import com.project.bookstore.dto.book.BookDto;
 import com.project.bookstore.dto.book.BookSearchParameters;
+import com.project.bookstore.dto.book.BookSliceDto;
+import com.project.bookstore.dto.book.BookSummaryDto;
 import com.project.bookstore.dto.book.BookWithoutCategoryIdsDto;
 import com.project.bookstore.dto.book.CreateBookRequestDto;
 import com.project.bookstore.exception.EntityNotFoundException;
 import com.project.bookstore.mapper.BookMapper;
 import com.project.bookstore.model.Book;
+import com.project.bookstore.repository.book.BookCursor;
 import com.project.bookstore.repository.book.BookRepository;
 import com.project.bookstore.repository.book.BookSpecificationBuilder;
+import com.project.bookstore.repository.shopping.cart.ShoppingCartRepository;
+import io.micrometer.core.annotation.Timed;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @RequiredArgsConstructor
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class BookServiceImpl implements BookService {
+    private static final int MAX_SLICE_SIZE = 100;
+    private static final int MAX_FULL_TEXT_TERMS = 10;
+    private static final Pattern FULL_TEXT_TERM = Pattern.compile("[\\p{L}\\p{N}]+");
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final BookSpecificationBuilder bookSpecificationBuilder;
+    private final ShoppingCartRepository shoppingCartRepository;
 
     @Override
+    @CacheEvict(
+            cacheNames = {CacheConfig.BOOK_PAGES, CacheConfig.CATEGORY_BOOK_PAGES},
+            allEntries = true)
     public BookDto save(CreateBookRequestDto requestDto) {
         return bookMapper.toDto(bookRepository
                 .save(bookMapper.toModel(requestDto)));
     }
 
     @Override
+    @CacheEvict(
+            cacheNames = {CacheConfig.BOOK_PAGES, CacheConfig.CATEGORY_BOOK_PAGES},
+            allEntries = true)
     public List<BookDto> saveAll(CreateBookRequestDto[] requestDtos) {
         return bookRepository.saveAll(Arrays.stream(requestDtos)
                 .map(bookMapper::toModel)
@@ -40,6 +74,8 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#id")
+    @Transactional(readOnly = true)
     public BookDto findById(Long id) {
         Book book = bookRepository.findById(id).orElseThrow(
                 () -> new EntityNotFoundException("Cant find book by id: " + id));
@@ -47,44 +83,178 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.BOOK_PAGES, key = "#pageable")
+    @Transactional(readOnly = true)
     public List<BookDto> findAll(Pageable pageable) {
-        return bookRepository.findAll(pageable).stream()
-                .map(bookMapper::toDto)
+        return bookRepository.findAllBookDtos(Specification.where(null), pageable)
+                .stream()
                 .toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @ReadFromReplica
     public List<BookDto> search(BookSearchParameters searchParameters, Pageable pageable) {
         Specification<Book> bookSpecification = bookSpecificationBuilder.build(searchParameters);
-        return bookRepository.findAll(bookSpecification, pageable)
+        return bookRepository.findAllBookDtos(bookSpecification, pageable)
                 .stream()
-                .map(bookMapper::toDto)
                 .toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @ReadFromReplica
+    public List<BookDto> searchFullText(String query, Pageable pageable) {
+        String booleanQuery = toBooleanQuery(query);
+        if (booleanQuery.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = bookRepository.findIdsByFullTextQuery(booleanQuery,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookDto> books = bookRepository.findAllBookDtosByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(BookDto::id, Function.identity()));
+        return ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReadFromReplica
+    public List<BookSummaryDto> findAllSummaries(
+            BookSearchParameters searchParameters,
+            Pageable pageable) {
+        Specification<Book> bookSpecification = bookSpecificationBuilder.build(searchParameters);
+        return bookRepository.findAllBookSummaries(bookSpecification, pageable)
+                .stream()
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReadFromReplica
+    public BookSliceDto<BookDto> scroll(String cursor, int size, Sort sort) {
+        BookCursor bookCursor = toBookCursor(cursor, sort);
+        return toSliceDto(bookRepository.findBookDtoSlice(
+                Specification.where(null), bookCursor, limit(size)), bookCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReadFromReplica
+    public BookSliceDto<BookDto> scrollSearch(
+            BookSearchParameters searchParameters,
+            String cursor,
+            int size,
+            Sort sort) {
+        BookCursor bookCursor = toBookCursor(cursor, sort);
+        Specification<Book> bookSpecification = bookSpecificationBuilder.build(searchParameters);
+        return toSliceDto(bookRepository.findBookDtoSlice(
+                bookSpecification, bookCursor, limit(size)), bookCursor);
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#id"),
+            @CacheEvict(
+                    cacheNames = {CacheConfig.BOOK_PAGES, CacheConfig.CATEGORY_BOOK_PAGES},
+                    allEntries = true)})
+    @Transactional
     public BookDto updateById(Long id, CreateBookRequestDto requestDto) {
         Book book = bookMapper.toModel(requestDto);
         if (!bookRepository.existsById(id)) {
             throw new EntityNotFoundException("Cant find book by id: " + id);
         }
         book.setId(id);
-        return bookMapper.toDto(bookRepository.save(book));
+        BookDto bookDto = bookMapper.toDto(bookRepository.save(book));
+        updateCartTotals(id);
+        return bookDto;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#id"),
+            @CacheEvict(
+                    cacheNames = {CacheConfig.BOOK_PAGES, CacheConfig.CATEGORY_BOOK_PAGES},
+                    allEntries = true)})
+    @Transactional
     public void deleteById(Long id) {
         if (!bookRepository.existsById(id)) {
             throw new EntityNotFoundException("Cant find book by id: " + id);
         }
         bookRepository.deleteById(id);
+        updateCartTotals(id);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_BOOK_PAGES, key = "{#id, #pageable}")
+    @Transactional(readOnly = true)
     public List<BookWithoutCategoryIdsDto> findAllByCategoryId(Long id, Pageable pageable) {
         return bookRepository.findAllByCategoriesId(id, pageable)
                 .stream()
                 .map(bookMapper::toBookWithoutCategoryIdsDto)
                 .toList();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReadFromReplica
+    public BookSliceDto<BookWithoutCategoryIdsDto> scrollByCategoryId(
+            Long id,
+            String cursor,
+            int size,
+            Sort sort) {
+        BookCursor bookCursor = toBookCursor(cursor, sort);
+        return toSliceDto(bookRepository.findBookSliceByCategoryId(
+                id, bookCursor, limit(size)), bookCursor);
+    }
+
+    /**
+     * Recomputes the running totals of the carts that contain the book, since
+     * they were summed with its old price or still include it after a delete.
+     */
+    private void updateCartTotals(Long bookId) {
+        List<Long> shoppingCartIds = shoppingCartRepository.findIdsByBookId(bookId);
+        if (!shoppingCartIds.isEmpty()) {
+            shoppingCartRepository.updateTotalsByIdIn(shoppingCartIds);
+        }
+    }
+
+    private String toBooleanQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        return FULL_TEXT_TERM.matcher(query.toLowerCase(Locale.ROOT))
+                .results()
+                .map(MatchResult::group)
+                .distinct()
+                .limit(MAX_FULL_TEXT_TERMS)
+                .map(term -> "+" + term + "*")
+                .collect(Collectors.joining(" "));
+    }
+
+    private BookCursor toBookCursor(String cursor, Sort sort) {
+        return cursor == null || cursor.isBlank()
+                ? BookCursor.first(sort)
+                : BookCursor.decode(cursor);
+    }
+
+    private int limit(int size) {
+        return Math.min(Math.max(size, 1), MAX_SLICE_SIZE);
+    }
+
+    private <T extends BookCursorKey> BookSliceDto<T> toSliceDto(
+            Slice<T> slice,
+            BookCursor bookCursor) {
+        List<T> content = slice.getContent();
+        String nextCursor = slice.hasNext()
+                ? bookCursor.after(content.get(content.size() - 1)).encode()
+                : null;
+        return new BookSliceDto<>(content, nextCursor, slice.hasNext());
+    }
 }
@@ -0,0 +1,8 @@
+package com.project.bookstore.service.cache;
+
+import com.project.bookstore.dto.cache.CacheStatsDto;
+import java.util.List;
+
+public interface CacheService {
+    List<CacheStatsDto> getStats();
+}
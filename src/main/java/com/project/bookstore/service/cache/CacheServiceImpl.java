@@ -0,0 +1,39 @@
+package com.project.bookstore.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.project.bookstore.dto.cache.CacheStatsDto;
+import java.util.List;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class CacheServiceImpl implements CacheService {
+    private final CacheManager cacheManager;
+
+    @Override
+    public List<CacheStatsDto> getStats() {
+        return cacheManager.getCacheNames()
+                .stream()
+                .sorted()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .filter(cache -> cache.getNativeCache() instanceof Cache<?, ?>)
+                .map(cache -> toDto(cache.getName(), (Cache<?, ?>) cache.getNativeCache()))
+                .toList();
+    }
+
+    private CacheStatsDto toDto(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDto(
+                name,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+}
@@ -1,5 +1,7 @@
 package com.project.bookstore.service.category;
 
+import com.project.bookstore.config.CacheConfig;
+import com.project.bookstore.config.ReadFromReplica;
 import com.project.bookstore.dto.category.CategoryDto;
 import com.project.bookstore.dto.category.CreateCategoryRequestDto;
 import com.project.bookstore.exception.EntityNotFoundException;
@@ -8,8 +10,10 @@ import com.project.bookstore.model.Category;
 import com.project.bookstore.repository.category.CategoryRepository;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -35,6 +39,8 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @ReadFromReplica
     public List<CategoryDto> findAll(Pageable pageable) {
         return categoryRepository.findAll(pageable)
                 .stream()
@@ -43,6 +49,8 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @ReadFromReplica
     public CategoryDto findById(Long id) {
         return categoryRepository.findById(id)
                 .map(categoryMapper::toDto)
@@ -62,6 +70,12 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @CacheEvict(
+            cacheNames = {
+                    CacheConfig.BOOKS,
+                    CacheConfig.BOOK_PAGES,
+                    CacheConfig.CATEGORY_BOOK_PAGES},
+            allEntries = true)
     public void deleteById(Long id) {
         categoryRepository.deleteById(id);
     }
@@ -5,11 +5,12 @@ import com.project.bookstore.dto.order.OrderDto;
 import com.project.bookstore.dto.order.OrderWithoutItemsDto;
 import com.project.bookstore.dto.order.UpdateOrderStatusDto;
 import com.project.bookstore.dto.order.item.OrderItemDto;
+import com.project.bookstore.model.User;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
 
 public interface OrderService {
-    OrderDto save(String username, CreateOrderRequestDto requestDto);
+    OrderDto save(User user, CreateOrderRequestDto requestDto, String idempotencyKey);
 
     List<OrderDto> findAll(String username, Pageable pageable);
 
@@ -1,5 +1,6 @@
 package com.project.bookstore.service.order;
 
+import com.project.bookstore.config.MetricsConfig;
 import com.project.bookstore.dto.order.CreateOrderRequestDto;
 import com.project.bookstore.dto.order.OrderDto;
 import com.project.bookstore.dto.order.OrderWithoutItemsDto;
@@ -9,50 +10,81 @@ import com.project.bookstore.exception.AuthorizationException;
 import com.project.bookstore.exception.EntityNotFoundException;
 import com.project.bookstore.mapper.OrderItemMapper;
 import com.project.bookstore.mapper.OrderMapper;
-import com.project.bookstore.mapper.ShoppingCartMapper;
 import com.project.bookstore.model.Order;
-import com.project.bookstore.model.OrderItem;
+import com.project.bookstore.model.OrderIdempotencyKey;
 import com.project.bookstore.model.ShoppingCart;
+import com.project.bookstore.model.User;
 import com.project.bookstore.repository.order.OrderRepository;
 import com.project.bookstore.repository.order.item.OrderItemRepository;
+import com.project.bookstore.repository.order.key.OrderIdempotencyKeyRepository;
 import com.project.bookstore.repository.shopping.cart.ShoppingCartRepository;
 import com.project.bookstore.service.shopping.cart.ShoppingCartService;
+import io.micrometer.core.annotation.Timed;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class OrderServiceImpl implements OrderService {
     private final ShoppingCartRepository shoppingCartRepository;
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final ShoppingCartService shoppingCartService;
-    private final ShoppingCartMapper shoppingCartMapper;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
+    private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    @Value("${bookstore.orders.idempotency-key.ttl:24h}")
+    private Duration idempotencyKeyTtl;
 
+    /**
+     * Checks out the shopping cart in one transaction with a fixed number of
+     * statements: order items are copied from the cart with one INSERT ... SELECT
+     * and the cart is cleared with bulk UPDATEs, whatever the number of items.
+     * The total is a SUM over the inserted order items in SQL rather than read
+     * from the cart separately, so it always matches them. The items are only
+     * loaded for the response.
+     * When an idempotency key is given, it is stored with the order, and repeated
+     * requests with the same key return the original order until the key expires.
+     * A concurrent duplicate waits on the unique key, fails, and then returns the
+     * order created by the first request.
+     * Cart changes that are still pending in the write-behind store are written
+     * before the transaction starts, so the order contains all of them, and
+     * further changes are rejected until the checkout has finished.
+     */
     @Override
-    public OrderDto save(String username, CreateOrderRequestDto requestDto) {
-        ShoppingCart shoppingCart =
-                shoppingCartRepository.findWithCartItemsByUserEmail(username)
-                        .orElseGet(
-                                () -> shoppingCartService
-                                        .createShoppingCart(username));
-        Order savedOrder = orderRepository
-                .save(initializeNewOrder(shoppingCart, requestDto));
-        orderItemRepository.saveAll(savedOrder.getOrderItems()
-                .stream()
-                .peek(orderItem -> orderItem.setOrder(savedOrder))
-                .collect(Collectors.toSet()));
-        shoppingCartService.clearShoppingCart(shoppingCart);
-        return orderMapper.toDto(savedOrder);
+    public OrderDto save(
+            User user,
+            CreateOrderRequestDto requestDto,
+            String idempotencyKey) {
+        String username = user.getEmail();
+        shoppingCartService.beginCheckout(username);
+        try {
+            return transactionTemplate.execute(
+                    status -> checkout(user, requestDto, idempotencyKey));
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            return transactionTemplate.execute(
+                    status -> findOrderByIdempotencyKey(username, idempotencyKey)
+                            .orElseThrow(() -> e));
+        } finally {
+            shoppingCartService.endCheckout(username);
+        }
     }
 
     @Override
@@ -95,37 +127,95 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toOrderWithoutItemsDto(orderRepository.save(order));
     }
 
+    /**
+     * Selects the item by its id, order id and owner in one statement. The order
+     * is only looked up again to tell apart the reasons when nothing was found.
+     */
     @Override
     public OrderItemDto findOrderItemById(Long orderId, Long itemId, String username) {
-        Order order = orderRepository.findWithItemsAndUserById(orderId)
+        return orderItemRepository.findDtoByIdAndOrderIdAndUserEmail(itemId, orderId, username)
+                .orElseThrow(() -> orderItemNotFound(orderId, itemId, username));
+    }
+
+    private OrderDto checkout(
+            User user,
+            CreateOrderRequestDto requestDto,
+            String idempotencyKey) {
+        String username = user.getEmail();
+        if (idempotencyKey != null) {
+            Optional<OrderDto> existingOrder =
+                    findOrderByIdempotencyKey(username, idempotencyKey);
+            if (existingOrder.isPresent()) {
+                return existingOrder.get();
+            }
+        }
+        ShoppingCart shoppingCart = shoppingCartRepository.findByUserId(user.getId())
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can't find shopping cart by username: " + username));
+        OrderIdempotencyKey storedKey = idempotencyKey == null
+                ? null
+                : orderIdempotencyKeyRepository.saveAndFlush(
+                        initializeIdempotencyKey(shoppingCart, idempotencyKey));
+        Order savedOrder = orderRepository
+                .save(initializeNewOrder(shoppingCart, requestDto));
+        orderItemRepository.insertAllFromShoppingCart(savedOrder.getId(), shoppingCart.getId());
+        savedOrder.setTotal(orderItemRepository.sumPriceByOrderId(savedOrder.getId()));
+        savedOrder.setOrderItems(new HashSet<>(
+                orderItemRepository.findAllByOrderId(savedOrder.getId())));
+        shoppingCartService.clearShoppingCart(shoppingCart);
+        if (storedKey != null) {
+            storedKey.setOrder(savedOrder);
+        }
+        return orderMapper.toDto(savedOrder);
+    }
+
+    private Optional<OrderDto> findOrderByIdempotencyKey(String username, String idempotencyKey) {
+        Optional<OrderIdempotencyKey> storedKey = orderIdempotencyKeyRepository
+                .findByUserEmailAndIdempotencyKey(username, idempotencyKey);
+        if (storedKey.isEmpty()) {
+            return Optional.empty();
+        }
+        if (storedKey.get().getCreatedAt()
+                .isBefore(LocalDateTime.now().minus(idempotencyKeyTtl))) {
+            orderIdempotencyKeyRepository.delete(storedKey.get());
+            orderIdempotencyKeyRepository.flush();
+            return Optional.empty();
+        }
+        Long orderId = storedKey.get().getOrder().getId();
+        return Optional.of(orderRepository.findWithItemsAndUserById(orderId)
+                .map(orderMapper::toDto)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can't find order by id: " + orderId)));
+    }
+
+    private RuntimeException orderItemNotFound(Long orderId, Long itemId, String username) {
+        String ownerEmail = orderRepository.findUserEmailById(orderId)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Can't find order by id: " + orderId));
-        if (!Objects.equals(order.getUser().getEmail(), username)) {
-            throw new AuthorizationException(
+        if (!Objects.equals(ownerEmail, username)) {
+            return new AuthorizationException(
                     "Access denied. You cannot view another user's orders.");
         }
-        return order.getOrderItems().stream()
-                .map(orderItemMapper::toDto)
-                .filter(item -> Objects.equals(item.id(), itemId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Invalid orderItem id: "
-                                + itemId));
+        return new IllegalArgumentException("Invalid orderItem id: " + itemId);
+    }
+
+    private OrderIdempotencyKey initializeIdempotencyKey(
+            ShoppingCart shoppingCart,
+            String idempotencyKey) {
+        OrderIdempotencyKey newKey = new OrderIdempotencyKey();
+        newKey.setUser(shoppingCart.getUser());
+        newKey.setIdempotencyKey(idempotencyKey);
+        newKey.setCreatedAt(LocalDateTime.now());
+        return newKey;
     }
 
     private Order initializeNewOrder(ShoppingCart shoppingCart, CreateOrderRequestDto requestDto) {
-        Order newOrder = shoppingCartMapper.toOrder(shoppingCart);
+        Order newOrder = new Order();
         newOrder.setShippingAddress(requestDto.shippingAddress());
+        newOrder.setUser(shoppingCart.getUser());
         newOrder.setOrderDate(LocalDateTime.now());
         newOrder.setStatus(Order.Status.NEW);
-        newOrder.setTotal(countTotal(newOrder));
+        newOrder.setTotal(BigDecimal.ZERO);
         return newOrder;
     }
-
-    private BigDecimal countTotal(Order newOrder) {
-        return newOrder.getOrderItems()
-                .stream()
-                .map(OrderItem::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
 }
@@ -0,0 +1,9 @@
+package com.project.bookstore.service.shopping.cart;
+
+record CartItemChange(
+        String username,
+        Long shoppingCartId,
+        Long itemId,
+        int quantity,
+        boolean deleted) {
+}
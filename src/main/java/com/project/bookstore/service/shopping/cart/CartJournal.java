@@ -0,0 +1,140 @@
+package com.project.bookstore.service.shopping.cart;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of cart item changes that are not written to the database
+ * yet. Every change is written as one line into the current segment file and
+ * flushed to the OS before the request returns. A flush of the store rotates
+ * to a new segment, and the old segments are deleted once their changes are
+ * committed, so after a crash only the segments left in the directory have to
+ * be replayed. A line without its line break was cut off by the crash and is
+ * skipped, since the request that wrote it never returned.
+ */
+class CartJournal {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SEPARATOR = "\t";
+    private final Path directory;
+    private long segment;
+    private BufferedWriter writer;
+
+    CartJournal(Path directory) {
+        this.directory = directory;
+    }
+
+    synchronized List<CartItemChange> open() {
+        try {
+            Files.createDirectories(directory);
+            List<CartItemChange> changes = new ArrayList<>();
+            for (long existingSegment : findSegments()) {
+                String content = Files.readString(toPath(existingSegment));
+                content.substring(0, content.lastIndexOf('\n') + 1)
+                        .lines()
+                        .filter(line -> !line.isBlank())
+                        .map(this::parse)
+                        .forEach(changes::add);
+                segment = Math.max(segment, existingSegment);
+            }
+            writer = newWriter(++segment);
+            return changes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cant open cart journal in " + directory, e);
+        }
+    }
+
+    synchronized void append(CartItemChange change) {
+        try {
+            writer.write(change.username() + SEPARATOR
+                    + change.shoppingCartId() + SEPARATOR
+                    + change.itemId() + SEPARATOR
+                    + change.quantity() + SEPARATOR
+                    + change.deleted());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cant append to cart journal", e);
+        }
+    }
+
+    /**
+     * Starts a new segment and returns the number of the last closed one.
+     * Changes appended before this call are in that segment or older ones.
+     */
+    synchronized long rotate() {
+        try {
+            writer.close();
+            writer = newWriter(++segment);
+            return segment - 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cant rotate cart journal", e);
+        }
+    }
+
+    synchronized long currentSegment() {
+        return segment;
+    }
+
+    synchronized void deleteUpTo(long lastSegment) {
+        try {
+            for (long existingSegment : findSegments()) {
+                if (existingSegment <= lastSegment) {
+                    Files.deleteIfExists(toPath(existingSegment));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cant delete cart journal segments", e);
+        }
+    }
+
+    synchronized void close() {
+        try {
+            if (writer != null) {
+                writer.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cant close cart journal", e);
+        }
+    }
+
+    private List<Long> findSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX)
+                            && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(
+                            SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private BufferedWriter newWriter(long newSegment) throws IOException {
+        return Files.newBufferedWriter(toPath(newSegment), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private Path toPath(long existingSegment) {
+        return directory.resolve(SEGMENT_PREFIX + existingSegment + SEGMENT_SUFFIX);
+    }
+
+    private CartItemChange parse(String line) {
+        String[] values = line.split(SEPARATOR);
+        return new CartItemChange(
+                values[0],
+                Long.parseLong(values[1]),
+                Long.parseLong(values[2]),
+                Integer.parseInt(values[3]),
+                Boolean.parseBoolean(values[4]));
+    }
+}
@@ -5,23 +5,33 @@ import com.project.bookstore.dto.shopping.item.CartItemWithoutBookTitleDto;
 import com.project.bookstore.dto.shopping.item.CreateCartItemRequestDto;
 import com.project.bookstore.dto.shopping.item.UpdateCartItemRequestDto;
 import com.project.bookstore.model.ShoppingCart;
+import com.project.bookstore.model.User;
+import java.util.List;
 
 public interface ShoppingCartService {
 
-    ShoppingCartDto findCartByUserName(String username);
+    ShoppingCartDto findCartByUser(User user);
 
     CartItemWithoutBookTitleDto postItem(
-            String username,
+            User user,
             CreateCartItemRequestDto requestDto);
 
+    List<CartItemWithoutBookTitleDto> postItems(
+            User user,
+            List<CreateCartItemRequestDto> requestDtos);
+
     CartItemWithoutBookTitleDto updateItem(
-            String username,
+            User user,
             Long id,
             UpdateCartItemRequestDto requestDto);
 
-    ShoppingCart createShoppingCart(String username);
+    ShoppingCart createShoppingCart(User user);
 
-    void deleteItem(Long id, String username);
+    void deleteItem(Long id, User user);
 
     void clearShoppingCart(ShoppingCart shoppingCart);
+
+    void beginCheckout(String username);
+
+    void endCheckout(String username);
 }
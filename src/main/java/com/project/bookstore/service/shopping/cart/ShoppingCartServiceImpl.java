@@ -1,101 +1,189 @@
 package com.project.bookstore.service.shopping.cart;
 
+import com.project.bookstore.config.MetricsConfig;
 import com.project.bookstore.dto.shopping.cart.ShoppingCartDto;
 import com.project.bookstore.dto.shopping.item.CartItemWithoutBookTitleDto;
 import com.project.bookstore.dto.shopping.item.CreateCartItemRequestDto;
 import com.project.bookstore.dto.shopping.item.UpdateCartItemRequestDto;
 import com.project.bookstore.exception.AuthorizationException;
 import com.project.bookstore.exception.EntityNotFoundException;
-import com.project.bookstore.mapper.CartItemMapper;
 import com.project.bookstore.mapper.ShoppingCartMapper;
-import com.project.bookstore.model.CartItem;
 import com.project.bookstore.model.ShoppingCart;
 import com.project.bookstore.model.User;
 import com.project.bookstore.repository.shopping.cart.ShoppingCartRepository;
 import com.project.bookstore.repository.shopping.item.CartItemRepository;
-import com.project.bookstore.repository.user.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import java.math.BigDecimal;
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ShoppingCartServiceImpl implements ShoppingCartService {
     private final ShoppingCartRepository shoppingCartRepository;
     private final ShoppingCartMapper shoppingCartMapper;
-    private final CartItemMapper cartItemMapper;
     private final CartItemRepository cartItemRepository;
-    private final UserRepository userRepository;
+    private final WriteBehindCartStore cartStore;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * The cart is found by the id of the authenticated user, which the
+     * principal already carries, so the user is not looked up again.
+     */
     @Override
-    public ShoppingCartDto findCartByUserName(String username) {
+    public ShoppingCartDto findCartByUser(User user) {
+        cartStore.flush(user.getEmail());
         return shoppingCartMapper.toDto(
-                shoppingCartRepository.findWithCartItemsByUserEmail(
-                        username).orElseGet(
-                                () -> createShoppingCart(username)));
+                shoppingCartRepository.findWithCartItemsByUserId(user.getId())
+                        .orElseThrow(() -> shoppingCartNotFound(user)));
     }
 
     @Override
     public CartItemWithoutBookTitleDto postItem(
-            String username,
+            User user,
             CreateCartItemRequestDto requestDto) {
-        ShoppingCart shoppingCart = shoppingCartRepository.findByUserEmail(username)
-                .orElseGet(() -> createShoppingCart(username));
-        CartItem newItem = cartItemMapper.toModel(requestDto);
-        newItem.setShoppingCart(shoppingCart);
-        CartItem savedItem = cartItemRepository.save(newItem);
-        return cartItemMapper.toCartItemWithoutBookTitleDto(savedItem);
+        return postItems(user, List.of(requestDto)).get(0);
+    }
+
+    /**
+     * Adds the books to the cart with one batched upsert, so a book that is
+     * already in the cart gets its quantity increased instead of a second row.
+     * Returns one item per distinct book in the order of the request. With the
+     * write-behind store enabled, books that are already in the cart are only
+     * changed in memory and written by the next flush of the store.
+     */
+    @Override
+    public List<CartItemWithoutBookTitleDto> postItems(
+            User user,
+            List<CreateCartItemRequestDto> requestDtos) {
+        if (cartStore.isEnabled()) {
+            return cartStore.addItems(
+                    user.getEmail(), () -> findShoppingCartId(user), requestDtos);
+        }
+        return transactionTemplate.execute(status -> upsertItems(user, requestDtos));
     }
 
     @Override
     public CartItemWithoutBookTitleDto updateItem(
-            String username,
+            User user,
             Long id,
             UpdateCartItemRequestDto requestDto) {
-        CartItem cartItem = cartItemRepository.findById(id)
-                .orElseThrow(
-                        () -> new EntityNotFoundException(
-                                "Can't find cart item by id: " + id));
-        authorize(username, cartItem);
-        cartItem.setQuantity(requestDto.quantity());
-        return cartItemMapper.toCartItemWithoutBookTitleDto(cartItemRepository.save(cartItem));
+        if (cartStore.isEnabled()) {
+            return cartStore.updateItem(
+                            user.getEmail(), () -> findShoppingCartId(user), id,
+                            requestDto.quantity())
+                    .orElseThrow(() -> cachedCartItemNotModified(user, id));
+        }
+        return transactionTemplate.execute(status -> updateItemQuantity(user, id, requestDto));
     }
 
     @Override
-    public void deleteItem(Long id, String username) {
-        CartItem cartItem = cartItemRepository.findById(id)
-                .orElseThrow(
-                        () -> new EntityNotFoundException(
-                                "Can't find cart item by id: " + id));
-        authorize(username, cartItem);
-        cartItemRepository.deleteById(id);
+    public void deleteItem(Long id, User user) {
+        if (cartStore.isEnabled()) {
+            if (!cartStore.deleteItem(user.getEmail(), () -> findShoppingCartId(user), id)) {
+                throw cachedCartItemNotModified(user, id);
+            }
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (cartItemRepository.deleteByIdAndUserId(id, user.getId()) == 0) {
+                throw cartItemNotModified(id);
+            }
+            updateTotals(user);
+        });
     }
 
     @Override
     public void clearShoppingCart(ShoppingCart shoppingCart) {
-        shoppingCart.getCartItems().forEach(cartItemRepository::delete);
+        cartItemRepository.deleteAllByShoppingCartId(shoppingCart.getId());
+        shoppingCartRepository.updateTotalsByIdIn(List.of(shoppingCart.getId()));
         shoppingCart.setCartItems(new HashSet<>());
-        shoppingCartRepository.save(shoppingCart);
+        shoppingCart.setTotal(BigDecimal.ZERO);
+        shoppingCart.setItemCount(0);
+        if (cartStore.isEnabled()) {
+            cartStore.evict(shoppingCart.getUser().getEmail());
+        }
     }
 
     @Override
-    public ShoppingCart createShoppingCart(String username) {
-        User currentUser = userRepository.findByEmail(username)
-                .orElseThrow(
-                        () -> new EntityNotFoundException(
-                                "Can't find user by username: "
-                                        + username));
-        return shoppingCartRepository.save(new ShoppingCart(currentUser));
-    }
-
-    private void authorize(String username, CartItem cartItem) {
-        ShoppingCart shoppingCart = shoppingCartRepository.findByUserEmail(
-                username).orElseGet(
-                        () -> createShoppingCart(username));
-        if (!Objects.equals(cartItem.getShoppingCart().getId(), shoppingCart.getId())) {
-            throw new AuthorizationException(
-                    "Access denied. You can't edit shopping cart of another user.");
+    public void beginCheckout(String username) {
+        cartStore.beginCheckout(username);
+    }
+
+    @Override
+    public void endCheckout(String username) {
+        cartStore.endCheckout(username);
+    }
+
+    @Override
+    public ShoppingCart createShoppingCart(User user) {
+        return shoppingCartRepository.save(new ShoppingCart(user));
+    }
+
+    private List<CartItemWithoutBookTitleDto> upsertItems(
+            User user,
+            List<CreateCartItemRequestDto> requestDtos) {
+        Long shoppingCartId = findShoppingCartId(user);
+        cartItemRepository.upsertAll(shoppingCartId, requestDtos);
+        shoppingCartRepository.updateTotalsByIdIn(List.of(shoppingCartId));
+        List<Long> bookIds = requestDtos.stream()
+                .map(CreateCartItemRequestDto::bookId)
+                .distinct()
+                .toList();
+        Map<Long, CartItemWithoutBookTitleDto> items = cartItemRepository
+                .findWithoutBookTitleDtosByShoppingCartIdAndBookIdIn(shoppingCartId, bookIds)
+                .stream()
+                .collect(Collectors.toMap(
+                        CartItemWithoutBookTitleDto::bookId, Function.identity()));
+        return bookIds.stream()
+                .map(items::get)
+                .toList();
+    }
+
+    private CartItemWithoutBookTitleDto updateItemQuantity(
+            User user,
+            Long id,
+            UpdateCartItemRequestDto requestDto) {
+        if (cartItemRepository.updateQuantityByIdAndUserId(
+                id, user.getId(), requestDto.quantity()) == 0) {
+            throw cartItemNotModified(id);
+        }
+        updateTotals(user);
+        return cartItemRepository.findWithoutBookTitleDtoById(id)
+                .orElseThrow(() -> cartItemNotModified(id));
+    }
+
+    private void updateTotals(User user) {
+        shoppingCartRepository.updateTotalsByIdIn(List.of(findShoppingCartId(user)));
+    }
+
+    private Long findShoppingCartId(User user) {
+        return shoppingCartRepository.findIdByUserId(user.getId())
+                .orElseThrow(() -> shoppingCartNotFound(user));
+    }
+
+    private EntityNotFoundException shoppingCartNotFound(User user) {
+        return new EntityNotFoundException(
+                "Can't find shopping cart by username: " + user.getEmail());
+    }
+
+    private RuntimeException cachedCartItemNotModified(User user, Long id) {
+        cartStore.flush(user.getEmail());
+        return cartItemNotModified(id);
+    }
+
+    private RuntimeException cartItemNotModified(Long id) {
+        if (!cartItemRepository.existsById(id)) {
+            return new EntityNotFoundException("Can't find cart item by id: " + id);
         }
+        return new AuthorizationException(
+                "Access denied. You can't edit shopping cart of another user.");
     }
 }
@@ -0,0 +1,528 @@
+package com.project.bookstore.service.shopping.cart;
+
+import com.project.bookstore.dto.shopping.item.CartItemWithoutBookTitleDto;
+import com.project.bookstore.dto.shopping.item.CreateCartItemRequestDto;
+import com.project.bookstore.exception.CheckoutInProgressException;
+import com.project.bookstore.repository.shopping.cart.ShoppingCartRepository;
+import com.project.bookstore.repository.shopping.item.CartItemRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Optional write-behind storage for cart items, enabled with
+ * {@code bookstore.carts.write-behind.enabled}. Carts are loaded into memory on
+ * first use and changed there under a lock striped by username; each change is
+ * appended to a local {@link CartJournal} before it is applied. A background
+ * thread writes the pending changes of all carts every {@code flush-interval}
+ * with one JDBC batch and recomputes their totals. Only books that are not in
+ * the cart yet are inserted synchronously, since their items need an id.
+ * No Java lock is held while the database is read or written: a cart is
+ * loaded outside of the lock and only installed if no other cart was cached
+ * or evicted meanwhile, and a write locks the rows of its carts first and only
+ * then takes their pending changes, so the writes of one cart are applied in
+ * order and carts of other users are not blocked.
+ * While a user checks out, changes of their cart are rejected, so no change
+ * can be acknowledged after the checkout has read the cart.
+ * The in-memory carts are owned by this instance, so the mode must not be
+ * enabled when several instances share the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WriteBehindCartStore {
+    private static final int STRIPES = 64;
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, CachedCart> carts = new ConcurrentHashMap<>();
+    private final Set<String> dirtyUsers = ConcurrentHashMap.newKeySet();
+    private final Lock[] stripes = createStripes();
+    private final long[] evictions = new long[STRIPES];
+    private final Set<String> checkouts = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> inFlightSegments = new ConcurrentHashMap<>();
+    private final AtomicLong writeIds = new AtomicLong();
+    @Value("${bookstore.carts.write-behind.enabled:false}")
+    private boolean enabled;
+    @Value("${bookstore.carts.write-behind.flush-interval:1s}")
+    private Duration flushInterval;
+    @Value("${bookstore.carts.write-behind.idle-timeout:30m}")
+    private Duration idleTimeout;
+    @Value("${bookstore.carts.write-behind.journal-dir:cart-journal}")
+    private Path journalDirectory;
+    private CartJournal journal;
+    private ScheduledExecutorService flusher;
+
+    /**
+     * Replays the changes left in the journal by a previous run before any
+     * request is served, then starts the background flush.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        journal = new CartJournal(journalDirectory);
+        List<CartItemChange> changes = journal.open();
+        if (!changes.isEmpty()) {
+            write(changes);
+        }
+        journal.deleteUpTo(journal.rotate());
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushDirtyCarts, flushInterval.toMillis(),
+                flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(flushInterval.toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushDirtyCarts();
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds the quantities in memory when every book is already in the cart.
+     * Otherwise writes the pending changes of the cart and upserts the items
+     * in one transaction, and caches the resulting items. While an upsert of
+     * the cart is running, other additions take this path as well, so they are
+     * ordered by the lock of the cart row instead of racing the cached items.
+     */
+    public List<CartItemWithoutBookTitleDto> addItems(
+            String username,
+            Supplier<Long> shoppingCartId,
+            List<CreateCartItemRequestDto> items) {
+        List<CartItemWithoutBookTitleDto> cachedItems = withCart(username, shoppingCartId, cart -> {
+            if (cart.upserts > 0
+                    || !items.stream().allMatch(item -> cart.findByBookId(item.bookId()) != null)) {
+                return null;
+            }
+            items.forEach(item -> {
+                CartItemWithoutBookTitleDto cartItem = cart.findByBookId(item.bookId());
+                change(cart, cartItem, cartItem.quantity() + item.quantity(), false);
+            });
+            return toDistinctBooks(cart, items);
+        });
+        if (cachedItems != null) {
+            return cachedItems;
+        }
+        CachedCart cart = withCart(username, shoppingCartId, loadedCart -> {
+            loadedCart.upserts++;
+            return loadedCart;
+        });
+        try {
+            writeChanges(List.of(cart), () -> upsert(cart, items));
+        } catch (RuntimeException e) {
+            withLock(username, () -> cart.pendingChanges.isEmpty()
+                    && remove(username, cart));
+            throw e;
+        } finally {
+            withLock(username, () -> cart.upserts--);
+        }
+        return withLock(username, () -> toDistinctBooks(cart, items));
+    }
+
+    public Optional<CartItemWithoutBookTitleDto> updateItem(
+            String username,
+            Supplier<Long> shoppingCartId,
+            Long id,
+            int quantity) {
+        return withCart(username, shoppingCartId, cart ->
+                Optional.ofNullable(cart.items.get(id))
+                        .map(item -> change(cart, item, quantity, false)));
+    }
+
+    public boolean deleteItem(String username, Supplier<Long> shoppingCartId, Long id) {
+        return withCart(username, shoppingCartId, cart -> {
+            CartItemWithoutBookTitleDto item = cart.items.get(id);
+            if (item == null) {
+                return false;
+            }
+            change(cart, item, item.quantity(), true);
+            return true;
+        });
+    }
+
+    /**
+     * Writes the pending changes of the user's cart before the caller reads
+     * the cart from the database, e.g. to check it out. Returns at once when
+     * the cart has no pending changes.
+     */
+    public void flush(String username) {
+        if (!enabled) {
+            return;
+        }
+        CachedCart dirtyCart = withLock(username, () -> {
+            CachedCart cart = carts.get(username);
+            return cart == null || cart.pendingChanges.isEmpty() ? null : cart;
+        });
+        if (dirtyCart != null) {
+            writeChanges(List.of(dirtyCart), () -> { });
+        }
+    }
+
+    /**
+     * Rejects further changes of the user's cart until {@link #endCheckout} is
+     * called, then writes the pending changes, waiting for a running upsert of
+     * the cart as well. The checkout reads the cart only after this returns,
+     * so every change acknowledged to the user is part of the order.
+     */
+    public void beginCheckout(String username) {
+        if (!enabled) {
+            return;
+        }
+        CachedCart cart = withLock(username, () -> {
+            if (!checkouts.add(username)) {
+                throw checkoutInProgress(username);
+            }
+            CachedCart cachedCart = carts.get(username);
+            return cachedCart == null
+                    || cachedCart.pendingChanges.isEmpty() && cachedCart.upserts == 0
+                    ? null : cachedCart;
+        });
+        if (cart != null) {
+            try {
+                writeChanges(List.of(cart), () -> { });
+            } catch (RuntimeException e) {
+                endCheckout(username);
+                throw e;
+            }
+        }
+    }
+
+    public void endCheckout(String username) {
+        if (!enabled) {
+            return;
+        }
+        withLock(username, () -> checkouts.remove(username));
+    }
+
+    /**
+     * Drops the cached cart once the caller's transaction has committed. A
+     * cart loaded before the commit would still hold the items that the
+     * transaction deleted, so evicting it right away is not enough. Changes
+     * are rejected during a checkout, so the cart has none pending by then;
+     * if it still has some, they refer to deleted items and are dropped with
+     * a warning.
+     */
+    public void evict(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            discard(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        discard(username);
+                    }
+                });
+    }
+
+    /**
+     * Journal segments are only deleted up to the oldest segment that a running
+     * write may have taken changes from, so a crash during that write still
+     * replays them.
+     */
+    private void flushDirtyCarts() {
+        try {
+            long segment = journal.rotate();
+            for (Lock stripe : stripes) {
+                stripe.lock();
+                stripe.unlock();
+            }
+            List<CachedCart> dirtyCarts = new ArrayList<>();
+            for (String username : dirtyUsers) {
+                dirtyUsers.remove(username);
+                CachedCart cart = carts.get(username);
+                if (cart != null) {
+                    dirtyCarts.add(cart);
+                }
+            }
+            if (!dirtyCarts.isEmpty()) {
+                writeChanges(dirtyCarts, () -> { });
+            }
+            journal.deleteUpTo(inFlightSegments.values()
+                    .stream()
+                    .mapToLong(inFlightSegment -> inFlightSegment - 1)
+                    .reduce(segment, Math::min));
+            evictIdleCarts();
+        } catch (RuntimeException e) {
+            log.error("Cant write cart changes, they will be retried", e);
+        }
+    }
+
+    /**
+     * Applies the action to the cached cart under the lock of the user. On a
+     * miss the cart is loaded without the lock and installed only if no cart
+     * of the stripe was evicted meanwhile, since the load may have read the
+     * items before a checkout deleted them; otherwise it is loaded again.
+     */
+    private <T> T withCart(
+            String username,
+            Supplier<Long> shoppingCartId,
+            Function<CachedCart, T> action) {
+        int stripe = stripeOf(username);
+        while (true) {
+            long generation;
+            stripes[stripe].lock();
+            try {
+                if (checkouts.contains(username)) {
+                    throw checkoutInProgress(username);
+                }
+                CachedCart cart = carts.get(username);
+                if (cart != null) {
+                    cart.lastAccess = System.nanoTime();
+                    return action.apply(cart);
+                }
+                generation = evictions[stripe];
+            } finally {
+                stripes[stripe].unlock();
+            }
+            Long id = shoppingCartId.get();
+            CachedCart loadedCart = new CachedCart(username, id,
+                    cartItemRepository.findWithoutBookTitleDtosByShoppingCartId(id));
+            withLock(username, () -> evictions[stripe] == generation
+                    && carts.putIfAbsent(username, loadedCart) == null);
+        }
+    }
+
+    private CachedCart discard(String username) {
+        return withLock(username, () -> {
+            CachedCart cart = carts.remove(username);
+            evictions[stripeOf(username)]++;
+            if (cart != null && !cart.pendingChanges.isEmpty()) {
+                log.warn("Dropped {} cart changes of {} made during checkout",
+                        cart.pendingChanges.size(), username);
+            }
+            return cart;
+        });
+    }
+
+    private boolean remove(String username, CachedCart cart) {
+        if (!carts.remove(username, cart)) {
+            return false;
+        }
+        evictions[stripeOf(username)]++;
+        return true;
+    }
+
+    private CheckoutInProgressException checkoutInProgress(String username) {
+        return new CheckoutInProgressException(
+                "Can't change the shopping cart of " + username + " during checkout");
+    }
+
+    private CartItemWithoutBookTitleDto change(
+            CachedCart cart,
+            CartItemWithoutBookTitleDto item,
+            int quantity,
+            boolean deleted) {
+        CartItemChange change = new CartItemChange(
+                cart.username, cart.shoppingCartId, item.id(), quantity, deleted);
+        journal.append(change);
+        cart.pendingChanges.put(item.id(), change);
+        dirtyUsers.add(cart.username);
+        CartItemWithoutBookTitleDto changedItem =
+                new CartItemWithoutBookTitleDto(item.id(), item.bookId(), quantity);
+        if (deleted) {
+            cart.items.remove(item.id());
+        } else {
+            cart.items.put(item.id(), changedItem);
+        }
+        return changedItem;
+    }
+
+    private List<CartItemWithoutBookTitleDto> toDistinctBooks(
+            CachedCart cart,
+            List<CreateCartItemRequestDto> items) {
+        return items.stream()
+                .map(CreateCartItemRequestDto::bookId)
+                .distinct()
+                .map(cart::findByBookId)
+                .toList();
+    }
+
+    private void upsert(CachedCart cart, List<CreateCartItemRequestDto> items) {
+        cartItemRepository.upsertAll(cart.shoppingCartId, items);
+        shoppingCartRepository.updateTotalsByIdIn(List.of(cart.shoppingCartId));
+        List<CartItemWithoutBookTitleDto> upsertedItems =
+                cartItemRepository.findWithoutBookTitleDtosByShoppingCartIdAndBookIdIn(
+                        cart.shoppingCartId,
+                        items.stream().map(CreateCartItemRequestDto::bookId).toList());
+        withLock(cart.username, () -> {
+            upsertedItems.stream()
+                    .filter(item -> !cart.pendingChanges.containsKey(item.id()))
+                    .forEach(item -> cart.items.put(item.id(), item));
+            return cart;
+        });
+    }
+
+    /**
+     * Locks the cart rows, then takes the pending changes of the carts and
+     * writes them in the same transaction. Changes that could not be written
+     * are put back and journaled again, unless the item was changed since.
+     */
+    private void writeChanges(List<CachedCart> dirtyCarts, Runnable afterWrite) {
+        Long writeId = writeIds.incrementAndGet();
+        inFlightSegments.put(writeId, journal.currentSegment());
+        List<CartItemChange> changes = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                shoppingCartRepository.lockAllByIdIn(dirtyCarts.stream()
+                        .map(cart -> cart.shoppingCartId)
+                        .sorted()
+                        .toList());
+                dirtyCarts.forEach(cart -> changes.addAll(withLock(cart.username, cart::drain)));
+                if (!changes.isEmpty()) {
+                    write(changes);
+                }
+                afterWrite.run();
+            });
+        } catch (RuntimeException e) {
+            changes.forEach(change -> withLock(change.username(), () -> {
+                CachedCart cart = carts.get(change.username());
+                if (cart != null && cart.pendingChanges.putIfAbsent(change.itemId(), change) == null) {
+                    journal.append(change);
+                    dirtyUsers.add(change.username());
+                }
+                return cart;
+            }));
+            throw e;
+        } finally {
+            inFlightSegments.remove(writeId);
+        }
+    }
+
+    private void write(Collection<CartItemChange> changes) {
+        Map<Long, CartItemChange> latestChanges = new LinkedHashMap<>();
+        changes.forEach(change -> latestChanges.put(change.itemId(), change));
+        Map<Long, Integer> quantities = new HashMap<>();
+        List<Long> deletedIds = new ArrayList<>();
+        latestChanges.values().forEach(change -> {
+            if (change.deleted()) {
+                deletedIds.add(change.itemId());
+            } else {
+                quantities.put(change.itemId(), change.quantity());
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!quantities.isEmpty()) {
+                cartItemRepository.updateQuantities(quantities);
+            }
+            if (!deletedIds.isEmpty()) {
+                cartItemRepository.deleteAllByIdIn(deletedIds);
+            }
+            shoppingCartRepository.updateTotalsByIdIn(latestChanges.values()
+                    .stream()
+                    .map(CartItemChange::shoppingCartId)
+                    .distinct()
+                    .toList());
+        });
+    }
+
+    private void evictIdleCarts() {
+        long idleSince = System.nanoTime() - idleTimeout.toNanos();
+        carts.forEach((username, cart) -> {
+            if (cart.lastAccess - idleSince < 0) {
+                withLock(username, () -> cart.pendingChanges.isEmpty()
+                        && cart.upserts == 0
+                        && cart.lastAccess - idleSince < 0
+                        && remove(username, cart));
+            }
+        });
+    }
+
+    private <T> T withLock(String username, Supplier<T> action) {
+        Lock stripe = stripes[stripeOf(username)];
+        stripe.lock();
+        try {
+            return action.get();
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private static int stripeOf(String username) {
+        return Math.floorMod(username.hashCode(), STRIPES);
+    }
+
+    private static Lock[] createStripes() {
+        Lock[] stripes = new Lock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+
+    private static class CachedCart {
+        private final String username;
+        private final Long shoppingCartId;
+        private final Map<Long, CartItemWithoutBookTitleDto> items = new HashMap<>();
+        private final Map<Long, CartItemChange> pendingChanges = new LinkedHashMap<>();
+        private long lastAccess;
+        private int upserts;
+
+        private CachedCart(
+                String username,
+                Long shoppingCartId,
+                List<CartItemWithoutBookTitleDto> items) {
+            this.username = username;
+            this.shoppingCartId = shoppingCartId;
+            items.forEach(item -> this.items.put(item.id(), item));
+        }
+
+        private CartItemWithoutBookTitleDto findByBookId(Long bookId) {
+            return items.values()
+                    .stream()
+                    .filter(item -> item.bookId().equals(bookId))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        private List<CartItemChange> drain() {
+            List<CartItemChange> changes = List.copyOf(pendingChanges.values());
+            pendingChanges.clear();
+            return changes;
+        }
+    }
+}
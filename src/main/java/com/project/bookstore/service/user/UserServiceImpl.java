@@ -1,5 +1,6 @@
 package com.project.bookstore.service.user;
 
+import com.project.bookstore.config.CacheConfig;
 import com.project.bookstore.dto.user.CreateUserRequestDto;
 import com.project.bookstore.dto.user.UpdateUserRolesRequestDto;
 import com.project.bookstore.dto.user.UserDto;
@@ -10,11 +11,15 @@ import com.project.bookstore.mapper.UserMapper;
 import com.project.bookstore.model.Role;
 import com.project.bookstore.model.User;
 import com.project.bookstore.repository.user.UserRepository;
+import com.project.bookstore.service.shopping.cart.ShoppingCartService;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -24,8 +29,14 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder encoder;
+    private final ShoppingCartService shoppingCartService;
 
+    /**
+     * Creates the user together with their shopping cart, so the cart can be
+     * looked up without falling back to creating it later.
+     */
     @Override
+    @Transactional
     public UserDto register(CreateUserRequestDto requestDto) {
         if (userRepository.findByEmail(requestDto.email()).isPresent()) {
             throw new RegistrationException("Such user already exists: "
@@ -39,10 +50,15 @@ public class UserServiceImpl implements UserService {
                     new Role(ADMIN_ROLE_ID)));
         }
         newUser.setPassword(encoder.encode(requestDto.password()));
-        return userMapper.toDto(userRepository.save(newUser));
+        User savedUser = userRepository.save(newUser);
+        shoppingCartService.createShoppingCart(savedUser);
+        return userMapper.toDto(savedUser);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, key = "#result.email()"),
+            @CacheEvict(cacheNames = CacheConfig.ROLE_VERSIONS, key = "#result.id()")})
     public UserWithRolesDto updateUserRoles(UpdateUserRolesRequestDto requestDto) {
         User user = userRepository
                 .findById(requestDto.id())
@@ -56,6 +72,7 @@ public class UserServiceImpl implements UserService {
                 .map(Role::new)
                 .collect(Collectors.toSet());
         user.setRoles(newRoles);
+        user.setRoleVersion(user.getRoleVersion() + 1);
         User savedUser = userRepository.save(user);
         return userMapper.toUserWithRolesDto(savedUser);
     }
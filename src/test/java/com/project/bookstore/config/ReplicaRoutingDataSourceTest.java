@@ -0,0 +1,145 @@
+package com.project.bookstore.config;
+
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.jdbc.Sql;
+import com.project.bookstore.dto.category.CategoryDto;
+import com.project.bookstore.dto.category.CreateCategoryRequestDto;
+import com.project.bookstore.exception.EntityNotFoundException;
+import com.project.bookstore.repository.category.CategoryRepository;
+import com.project.bookstore.service.category.CategoryService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a second MySQL container that stands in for the replica. It is
+ * not replicated, so a row that exists only on one side shows which one served
+ * the query.
+ */
+@SpringBootTest(properties = {
+        "bookstore.datasource.replica.url=jdbc:tc:mysql:8:///bookstore_replica",
+        "bookstore.datasource.replica.read-your-writes-window=1m"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql(scripts = "classpath:database/config/replica/03-clear-primary-after-routing-test.sql",
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ReplicaRoutingDataSourceTest {
+    private static final Long REPLICA_CATEGORY_ID = 1000L;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(new ClassPathResource(
+                "database/config/replica/01-prepare-replica-for-routing-test.sql"))
+                .execute(replicaDataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new ResourceDatabasePopulator(new ClassPathResource(
+                "database/config/replica/02-clear-replica-after-routing-test.sql"))
+                .execute(replicaDataSource);
+    }
+
+    @Test
+    @DisplayName("Read-only service methods marked for the replica read from it")
+    public void findById_ReadOnlyTransaction_ReadFromReplica() {
+        // Given
+        CategoryDto expected = new CategoryDto(
+                REPLICA_CATEGORY_ID, "Replica category", "Exists only on the replica");
+
+        // When
+        CategoryDto actual = categoryService.findById(REPLICA_CATEGORY_ID);
+
+        // Then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Unmarked read-only transactions read from the primary")
+    public void findById_UnmarkedReadOnlyTransaction_ReadFromPrimary() {
+        // When
+        // Then
+        assertTrue(categoryRepository.findById(REPLICA_CATEGORY_ID).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Writes go to the primary")
+    public void save_ReadWriteTransaction_WrittenToPrimary() {
+        // Given
+        CreateCategoryRequestDto requestDto =
+                new CreateCategoryRequestDto("Primary category", "description");
+
+        // When
+        categoryService.save(requestDto);
+
+        // Then
+        assertEquals(1, countCategories(primaryDataSource, requestDto.name()));
+        assertEquals(0, countCategories(replicaDataSource, requestDto.name()));
+    }
+
+    @Test
+    @DisplayName("A user who has just written reads from the primary, other users do not")
+    public void findById_AfterOwnWrite_ReadFromPrimary() {
+        // Given
+        authenticate("writer@example.com");
+        categoryService.save(new CreateCategoryRequestDto("Primary category", "description"));
+
+        // When
+        // Then
+        assertThrows(EntityNotFoundException.class,
+                () -> categoryService.findById(REPLICA_CATEGORY_ID));
+        authenticate("reader@example.com");
+        assertEquals(REPLICA_CATEGORY_ID, categoryService.findById(REPLICA_CATEGORY_ID).id());
+    }
+
+    @Test
+    @DisplayName("Reads outside of a transaction do not pin the user to the primary")
+    public void findById_AfterNonTransactionalRead_ReadFromReplica() {
+        // Given
+        authenticate("reader@example.com");
+        countCategories(dataSource, "Primary category");
+
+        // When
+        CategoryDto actual = categoryService.findById(REPLICA_CATEGORY_ID);
+
+        // Then
+        assertEquals(REPLICA_CATEGORY_ID, actual.id());
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private Integer countCategories(DataSource dataSource, String name) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM categories WHERE name = ?", Integer.class, name);
+    }
+}
@@ -3,6 +3,9 @@ package com.project.bookstore.controller;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.bookstore.dto.book.BookDto;
+import com.project.bookstore.dto.book.BookImportErrorDto;
+import com.project.bookstore.dto.book.BookImportResultDto;
+import com.project.bookstore.dto.book.BookSummaryDto;
 import com.project.bookstore.dto.book.CreateBookRequestDto;
 import java.math.BigDecimal;
 import java.util.HashSet;
@@ -122,6 +125,36 @@ class BookControllerTest {
         assertTrue(actual.isEmpty());
     }
 
+    // Find all summaries
+    @Sql(scripts = "classpath:database/controller/book/01-prepare-db-for-book-controller-test.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = "classpath:database/controller/book/02-clear-db-after-book-controller-test.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @WithMockUser(username = "user", authorities = {"user"})
+    @Test
+    @DisplayName("Find all summaries with valid search parameters")
+    public void findAllSummaries_SearchParametersAreValid_ReturnsBookSummaryList() throws Exception {
+        BookSummaryDto expected = new BookSummaryDto(
+                1L,
+                "Book Title 1",
+                "Author Name 1",
+                "978-0-00-000000-1",
+                new BigDecimal("19.99"),
+                "https://coverimage1.jpg");
+
+        MvcResult result = mockMvc.perform(get("/books/summaries")
+                        .param("titles", "Book Title 1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<BookSummaryDto> actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                new TypeReference<>() {});
+
+        assertEquals(List.of(expected), actual);
+    }
+
     // Find by id
     @Sql(scripts = "classpath:database/controller/book/01-prepare-db-for-book-controller-test.sql",
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -329,6 +362,46 @@ class BookControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    // Test methods for import
+    @Sql(scripts = "classpath:database/controller/book/01-prepare-db-for-book-controller-test.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = "classpath:database/controller/book/02-clear-db-after-book-controller-test.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @WithMockUser(username = "admin", authorities = {"admin"})
+    @Test
+    @DisplayName("Import CSV imports valid rows and reports invalid ones")
+    public void importCsv_ValidAndInvalidRows_ReturnsImportResult() throws Exception {
+        String csv = """
+                title,author,isbn,price,description,coverImage,categoryIds
+                Book title 11,Book author 11,978-0-00-000001-1,19.99,Description,\
+                https://coverimage11.jpg,1
+                Book title 12,Book author 12,978-0-00-000001-2,-1,Description,\
+                https://coverimage12.jpg,1
+                """;
+        BookImportResultDto expected = new BookImportResultDto(1, 1, List.of(
+                new BookImportErrorDto(3, "price: must be greater than or equal to 0")));
+
+        MvcResult result = mockMvc.perform(post("/books/import")
+                        .content(csv)
+                        .contentType("text/csv"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        BookImportResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), BookImportResultDto.class);
+        assertEquals(expected, actual);
+    }
+
+    @WithMockUser(username = "admin", authorities = {"admin"})
+    @Test
+    @DisplayName("Import CSV without header row throws BadRequestException")
+    public void importCsv_HeaderIsMissing_ThrowsBadRequestException() throws Exception {
+        mockMvc.perform(post("/books/import")
+                        .content("")
+                        .contentType("text/csv"))
+                .andExpect(status().isBadRequest());
+    }
+
     // Test methods for updateById
     @Sql(scripts = "classpath:database/controller/book/01-prepare-db-for-book-controller-test.sql",
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -261,6 +261,31 @@ class CategoryControllerTest {
     }
 
     // Tests for findAll
+    @WithMockUser(username = "user", authorities = {"user"})
+    @Test
+    @DisplayName("Find all with a full page of categories stays within the statement budget")
+    @Sql(scripts = "classpath:database/controller/category/" +
+            "01-prepare-db-for-category-controller-test.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = "classpath:database/controller/category/" +
+            "02-clear-db-after-category-controller-test.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void findAll_MoreCategoriesThanPageSize_ReturnsFullPage() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/categories")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<CategoryDto> actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                new TypeReference<>() {
+                }
+        );
+        // Then
+        assertEquals(1, actual.size());
+    }
+
     @WithMockUser(username = "user", authorities = {"user"})
     @Test
     @DisplayName("Find all with valid pageable")
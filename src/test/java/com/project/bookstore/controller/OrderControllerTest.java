@@ -7,9 +7,13 @@ import com.project.bookstore.dto.order.OrderDto;
 import com.project.bookstore.dto.order.OrderWithoutItemsDto;
 import com.project.bookstore.dto.order.UpdateOrderStatusDto;
 import com.project.bookstore.dto.order.item.OrderItemDto;
+import com.project.bookstore.security.WithMockBookstoreUser;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.servlet.ServletException;
 import java.math.BigDecimal;
 import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,6 +23,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
@@ -35,7 +40,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @ExtendWith(MockitoExtension.class)
 @Sql(scripts = "classpath:database/controller/order/" +
@@ -48,6 +54,10 @@ class OrderControllerTest {
     protected static MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @BeforeAll
     static void beforeAll(@Autowired WebApplicationContext applicationContext) {
@@ -57,9 +67,7 @@ class OrderControllerTest {
     }
 
     // Tests for findAll
-    @WithMockUser(
-            username = "anotherRandomUser@domain.com",
-            authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
     @Test
     @DisplayName("Find all with valid authentication")
     public void findAll_ValidAuthentication_ReturnsOrderDtoList() throws Exception {
@@ -92,6 +100,24 @@ class OrderControllerTest {
         EqualsBuilder.reflectionEquals(expected, actual, "orderItemList");
     }
 
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
+    @Test
+    @DisplayName("Find all with a full page of orders stays within the statement budget")
+    public void findAll_MoreOrdersThanPageSize_ReturnsFullPage() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/orders")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<OrderDto> actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                new TypeReference<List<OrderDto>>() {}
+        );
+        // Then
+        assertEquals(1, actual.size());
+    }
+
     @Test
     @DisplayName("Find all with unauthorized user")
     public void findAll_UnauthorizedUser_ThrowsException() throws Exception {
@@ -102,7 +128,7 @@ class OrderControllerTest {
     }
 
     // Tests for save
-    @WithMockUser(username = "anotherRandomUser@domain.com", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
     @Test
     @DisplayName("Save with valid authentication and request dto")
     public void save_ValidAuthenticationAndRequestDto_ReturnsOrderDto() throws Exception {
@@ -128,6 +154,118 @@ class OrderControllerTest {
         EqualsBuilder.reflectionEquals(expected, actual, "orderItemList");
     }
 
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
+    @Sql(statements = {
+            "UPDATE cart_items SET is_deleted = true",
+            "INSERT INTO books (id, title, author, isbn, price, description, cover_image) "
+                    + "VALUES (3, 'Book Title 3', 'Author Name 3', '978-0-00-000000-3', "
+                    + "19.99, 'Description for Book 3', 'https://coverimage3.jpg')",
+            "INSERT INTO cart_items (shopping_cart_id, book_id, quantity) "
+                    + "VALUES (1, 1, 1), (1, 2, 2), (1, 3, 3)"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Test
+    @DisplayName("Save runs the same number of statements for any number of cart items")
+    public void save_CartWithItems_FixedStatementCount() throws Exception {
+        // Given
+        String jsonRequest = objectMapper.writeValueAsString(
+                new CreateOrderRequestDto("new address"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        // When
+        MvcResult result = mockMvc.perform(post("/orders")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        OrderDto actual = objectMapper
+                .readValue(result.getResponse().getContentAsString(), OrderDto.class);
+        // Then
+        assertEquals(8, statistics.getPrepareStatementCount());
+        assertEquals(3, actual.orderItemList().size());
+        assertEquals(new BigDecimal("139.94"), actual.total());
+    }
+
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
+    @Sql(statements = {
+            "UPDATE cart_items SET is_deleted = true",
+            "INSERT INTO cart_items (shopping_cart_id, book_id, quantity) "
+                    + "VALUES (1, 1, 1), (1, 2, 2)"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Test
+    @DisplayName("Save stores a total equal to the sum of price times quantity of the order items")
+    public void save_CartWithItems_TotalEqualsSumOfOrderItems() throws Exception {
+        // Given
+        String jsonRequest = objectMapper.writeValueAsString(
+                new CreateOrderRequestDto("new address"));
+        // When
+        MvcResult result = mockMvc.perform(post("/orders")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        OrderDto actual = objectMapper
+                .readValue(result.getResponse().getContentAsString(), OrderDto.class);
+        // Then
+        BigDecimal itemsTotal = jdbcTemplate.queryForObject(
+                "SELECT SUM(b.price * oi.quantity) FROM order_items oi "
+                        + "JOIN books b ON b.id = oi.book_id "
+                        + "WHERE oi.order_id = ?",
+                BigDecimal.class,
+                actual.id());
+        assertEquals(new BigDecimal("79.97"), actual.total());
+        assertEquals(itemsTotal, actual.total());
+    }
+
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
+    @Sql(statements = {
+            "UPDATE cart_items SET is_deleted = true",
+            "INSERT INTO cart_items (shopping_cart_id, book_id, quantity) VALUES (1, 1, 2)"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Test
+    @DisplayName("Save repeated with the same idempotency key returns the original order")
+    public void save_RepeatedIdempotencyKey_ReturnsOriginalOrder() throws Exception {
+        // Given
+        String jsonRequest = objectMapper.writeValueAsString(
+                new CreateOrderRequestDto("new address"));
+        // When
+        OrderDto first = objectMapper.readValue(mockMvc.perform(post("/orders")
+                        .header("Idempotency-Key", "checkout-1")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), OrderDto.class);
+        OrderDto repeated = objectMapper.readValue(mockMvc.perform(post("/orders")
+                        .header("Idempotency-Key", "checkout-1")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), OrderDto.class);
+        // Then
+        assertEquals(first.id(), repeated.id());
+        assertEquals(first.total(), repeated.total());
+        assertEquals(1, repeated.orderItemList().size());
+    }
+
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
+    @Test
+    @DisplayName("Save with too long idempotency key")
+    public void save_TooLongIdempotencyKey_ReturnsBadRequest() throws Exception {
+        // Given
+        String jsonRequest = objectMapper.writeValueAsString(
+                new CreateOrderRequestDto("new address"));
+        // When & Then
+        mockMvc.perform(post("/orders")
+                        .header("Idempotency-Key", "k".repeat(65))
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Save with unauthorized user")
     public void save_UnauthorizedUser_ThrowsException() throws Exception {
@@ -142,7 +280,7 @@ class OrderControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
-    @WithMockUser(username = "anotherRandomUser@domain.com", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
     @Test
     @DisplayName("Save with null request dto")
     public void save_NullRequestDto_ThrowsException() throws Exception {
@@ -156,7 +294,7 @@ class OrderControllerTest {
     }
 
     // Tests for getItems
-    @WithMockUser(username = "anotherRandomUser@domain.com", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
     @Test
     @DisplayName("Get items with valid order ID and authentication")
     public void getItems_ValidOrderIdAndAuthentication_ReturnsOrderItemDtoList() throws Exception {
@@ -185,7 +323,7 @@ class OrderControllerTest {
         }
     }
 
-    @WithMockUser(username = "anotherRandomUser@domain.com", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
     @Test
     @DisplayName("Get items with invalid order ID")
     public void getItems_InvalidOrderId_ThrowsException() throws Exception {
@@ -210,7 +348,7 @@ class OrderControllerTest {
     }
 
     // Tests for findOrderItemById
-    @WithMockUser(username = "anotherRandomUser@domain.com", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
     @Test
     @DisplayName("FindOrderItemById with Valid OrderId, ItemId, and Authentication Returns OrderItemDto")
     public void findOrderItemById_ValidOrderIdItemIdAndAuthentication_ReturnsOrderItemDto() throws Exception {
@@ -230,7 +368,7 @@ class OrderControllerTest {
     }
 
     // Test for invalid orderId
-    @WithMockUser(username = "anotherRandomUser@domain.com", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
     @Test
     @DisplayName("FindOrderItemById with Invalid OrderId Throws Exception")
     public void findOrderItemById_InvalidOrderId_ThrowsException() throws Exception {
@@ -243,7 +381,7 @@ class OrderControllerTest {
                 .andExpect(status().isNotFound());
     }
 
-    @WithMockUser(username = "anotherRandomUser@domain.com", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "anotherRandomUser@domain.com")
     @Test
     @DisplayName("Find order item by ID with invalid item ID throws exception")
     public void findOrderItemById_InvalidItemId_ThrowsException() throws Exception {
@@ -1,11 +1,14 @@
 package com.project.bookstore.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.bookstore.dto.shopping.cart.ShoppingCartDto;
 import com.project.bookstore.dto.shopping.item.CartItemDto;
 import com.project.bookstore.dto.shopping.item.CartItemWithoutBookTitleDto;
 import com.project.bookstore.dto.shopping.item.CreateCartItemRequestDto;
 import com.project.bookstore.dto.shopping.item.UpdateCartItemRequestDto;
+import com.project.bookstore.security.WithMockBookstoreUser;
+import java.math.BigDecimal;
 import java.util.List;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -16,7 +19,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
-import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -57,7 +59,7 @@ class ShoppingCartControllerTest {
     // Tests for getCart
     @Test
     @DisplayName("Get cart with valid authentication returns ShoppingCartDto")
-    @WithMockUser(username = "penultimateUniqueUser@sample.net", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "penultimateUniqueUser@sample.net")
     @Sql(scripts = "classpath:database/controller/shoppint-cart/" +
             "01-prepare-db-for-shopping-cart-controller-test.sql",
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -80,7 +82,9 @@ class ShoppingCartControllerTest {
         ShoppingCartDto expected = new ShoppingCartDto(
                 1L,
                 1L,
-                cartItems);
+                cartItems,
+                new BigDecimal("799.70"),
+                30);
         // When
         MvcResult result = mockMvc.perform(get("/cart")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -91,6 +95,8 @@ class ShoppingCartControllerTest {
                         ShoppingCartDto.class);
         // Then
         EqualsBuilder.reflectionEquals(expected, actual, "cartItems");
+        assertEquals(expected.total(), actual.total());
+        assertEquals(expected.itemCount(), actual.itemCount());
     }
 
     // Test for null authentication
@@ -111,8 +117,8 @@ class ShoppingCartControllerTest {
 
     // Tests for postItem
     @Test
-    @DisplayName("Post item with valid authentication and request DTO returns CartItemWithoutBookTitleDto")
-    @WithMockUser(username = "penultimateUniqueUser@sample.net", authorities = {"user"})
+    @DisplayName("Post item with a book already in the cart increases its quantity")
+    @WithMockBookstoreUser(id = 1, email = "penultimateUniqueUser@sample.net")
     @Sql(scripts = "classpath:database/controller/shoppint-cart/" +
             "01-prepare-db-for-shopping-cart-controller-test.sql",
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -122,7 +128,7 @@ class ShoppingCartControllerTest {
     public void postItem_ValidAuthenticationAndRequestDto_ReturnsCartItemWithoutBookTitleDto() throws Exception {
         // Given
         CreateCartItemRequestDto requestDto = new CreateCartItemRequestDto(1L, 20);
-        CartItemWithoutBookTitleDto expected = new CartItemWithoutBookTitleDto(3L, 1L, 20);
+        CartItemWithoutBookTitleDto expected = new CartItemWithoutBookTitleDto(1L, 1L, 30);
         String jsonRequest = objectMapper.writeValueAsString(requestDto);
         // When
         MvcResult result = mockMvc.perform(post("/cart")
@@ -137,6 +143,53 @@ class ShoppingCartControllerTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Post items adds new books and increases quantities of books in the cart")
+    @WithMockBookstoreUser(id = 1, email = "penultimateUniqueUser@sample.net")
+    @Sql(scripts = "classpath:database/controller/shoppint-cart/" +
+            "01-prepare-db-for-shopping-cart-controller-test.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = "classpath:database/controller/shoppint-cart/" +
+            "02-clear-db-after-shopping-cart-controller-test.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void postItems_NewAndExistingBooks_ItemsUpserted() throws Exception {
+        // Given
+        String jsonRequest = objectMapper.writeValueAsString(List.of(
+                new CreateCartItemRequestDto(2L, 5),
+                new CreateCartItemRequestDto(1L, 1),
+                new CreateCartItemRequestDto(2L, 5)));
+        List<CartItemWithoutBookTitleDto> expected = List.of(
+                new CartItemWithoutBookTitleDto(2L, 2L, 30),
+                new CartItemWithoutBookTitleDto(1L, 1L, 11));
+        // When
+        MvcResult result = mockMvc.perform(post("/cart/cart-items/batch")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<CartItemWithoutBookTitleDto> actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                new TypeReference<List<CartItemWithoutBookTitleDto>>() {});
+        // Then
+        assertEquals(expected, actual);
+        assertEquals(2, getCart().cartItems().size());
+        assertEquals(new BigDecimal("1119.59"), getCart().total());
+    }
+
+    @Test
+    @DisplayName("Post items with an invalid item throws exception")
+    @WithMockBookstoreUser(id = 1, email = "penultimateUniqueUser@sample.net")
+    public void postItems_InvalidQuantity_ThrowsException() throws Exception {
+        // Given
+        String jsonRequest = objectMapper.writeValueAsString(List.of(
+                new CreateCartItemRequestDto(1L, 0)));
+        // When & Then
+        mockMvc.perform(post("/cart/cart-items/batch")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     // Test for null authentication
     @Test
     @DisplayName("Post item with unauthorized user throws exception")
@@ -160,7 +213,7 @@ class ShoppingCartControllerTest {
     // Test for null request DTO
     @Test
     @DisplayName("Post item with null request DTO throws exception")
-    @WithMockUser(username = "penultimateUniqueUser@sample.net", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "penultimateUniqueUser@sample.net")
     @Sql(scripts = "classpath:database/controller/shoppint-cart/" +
             "01-prepare-db-for-shopping-cart-controller-test.sql",
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -181,7 +234,7 @@ class ShoppingCartControllerTest {
     // Tests for updateItem
     @Test
     @DisplayName("Update item with valid ID, authentication, and request DTO returns CartItemWithoutBookTitleDto")
-    @WithMockUser(username = "penultimateUniqueUser@sample.net", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "penultimateUniqueUser@sample.net")
     @Sql(scripts = "classpath:database/controller/shoppint-cart/" +
             "01-prepare-db-for-shopping-cart-controller-test.sql",
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -209,7 +262,7 @@ class ShoppingCartControllerTest {
     // Test for invalid ID
     @Test
     @DisplayName("Update item with invalid ID throws exception")
-    @WithMockUser(username = "penultimateUniqueUser@sample.net", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "penultimateUniqueUser@sample.net")
     @Sql(scripts = "classpath:database/controller/shoppint-cart/" +
             "01-prepare-db-for-shopping-cart-controller-test.sql",
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -251,7 +304,7 @@ class ShoppingCartControllerTest {
     // Test for null request DTO
     @Test
     @DisplayName("Update item with null request DTO throws exception")
-    @WithMockUser(username = "penultimateUniqueUser@sample.net", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "penultimateUniqueUser@sample.net")
     @Sql(scripts = "classpath:database/controller/shoppint-cart/" +
             "01-prepare-db-for-shopping-cart-controller-test.sql",
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -273,7 +326,7 @@ class ShoppingCartControllerTest {
     // Tests for deleteItem
     @Test
     @DisplayName("Delete item with valid ID and authentication performs deletion")
-    @WithMockUser(username = "penultimateUniqueUser@sample.net", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "penultimateUniqueUser@sample.net")
     @Sql(scripts = "classpath:database/controller/shoppint-cart/" +
             "01-prepare-db-for-shopping-cart-controller-test.sql",
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -289,10 +342,39 @@ class ShoppingCartControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("Update and delete item keep the cart total and item count in sync")
+    @WithMockBookstoreUser(id = 1, email = "penultimateUniqueUser@sample.net")
+    @Sql(scripts = "classpath:database/controller/shoppint-cart/" +
+            "01-prepare-db-for-shopping-cart-controller-test.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = "classpath:database/controller/shoppint-cart/" +
+            "02-clear-db-after-shopping-cart-controller-test.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void updateAndDeleteItem_ValidIds_CartTotalsUpdated() throws Exception {
+        // Given
+        String jsonRequest = objectMapper.writeValueAsString(new UpdateCartItemRequestDto(30));
+        // When
+        mockMvc.perform(put("/cart/cart-items/1")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        ShoppingCartDto afterUpdate = getCart();
+        mockMvc.perform(delete("/cart/cart-items/2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        ShoppingCartDto afterDelete = getCart();
+        // Then
+        assertEquals(new BigDecimal("1199.50"), afterUpdate.total());
+        assertEquals(50, afterUpdate.itemCount());
+        assertEquals(new BigDecimal("599.70"), afterDelete.total());
+        assertEquals(30, afterDelete.itemCount());
+    }
+
     // Test for invalid ID
     @Test
     @DisplayName("Delete item with invalid ID throws exception")
-    @WithMockUser(username = "penultimateUniqueUser@sample.net", authorities = {"user"})
+    @WithMockBookstoreUser(id = 1, email = "penultimateUniqueUser@sample.net")
     @Sql(scripts = "classpath:database/controller/shoppint-cart/" +
             "01-prepare-db-for-shopping-cart-controller-test.sql",
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -325,4 +407,13 @@ class ShoppingCartControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isUnauthorized());
     }
+
+    private ShoppingCartDto getCart() throws Exception {
+        MvcResult result = mockMvc.perform(get("/cart")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(
+                result.getResponse().getContentAsString(), ShoppingCartDto.class);
+    }
 }
\ No newline at end of file
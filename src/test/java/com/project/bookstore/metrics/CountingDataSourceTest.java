@@ -0,0 +1,69 @@
+package com.project.bookstore.metrics;
+
+import java.util.List;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CountingDataSourceTest {
+    private final SqlStatementCounter sqlStatementCounter = new SqlStatementCounter();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:counting;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new CountingDataSource(target, sqlStatementCounter));
+        jdbcTemplate.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, quantity INT)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqlStatementCounter.stop();
+        jdbcTemplate.execute("DROP TABLE items");
+    }
+
+    @Test
+    @DisplayName("Queries and updates run through JdbcTemplate are counted")
+    public void execute_QueryAndUpdate_BothCounted() {
+        // Given
+        sqlStatementCounter.start();
+
+        // When
+        jdbcTemplate.update("INSERT INTO items (id, quantity) VALUES (?, ?)", 1L, 2);
+        jdbcTemplate.queryForList("SELECT quantity FROM items", Integer.class);
+
+        // Then
+        assertEquals(2, sqlStatementCounter.stop());
+    }
+
+    @Test
+    @DisplayName("A JDBC batch counts as one statement")
+    public void batchUpdate_SeveralRows_CountedOnce() {
+        // Given
+        sqlStatementCounter.start();
+
+        // When
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, quantity) VALUES (?, ?)",
+                List.of(new Object[] {1L, 2}, new Object[] {2L, 3}, new Object[] {3L, 4}));
+
+        // Then
+        assertEquals(1, sqlStatementCounter.stop());
+    }
+
+    @Test
+    @DisplayName("Statements run outside of a counted scope are not counted")
+    public void execute_NotCounting_NothingCounted() {
+        // When
+        jdbcTemplate.update("INSERT INTO items (id, quantity) VALUES (?, ?)", 1L, 2);
+        sqlStatementCounter.start();
+
+        // Then
+        assertEquals(0, sqlStatementCounter.stop());
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.bookstore.metrics;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Scrapes the Prometheus endpoint after a request. The actuator runs on the
+ * application port here, and the SQL statement filter is added to MockMvc like
+ * the security filters are.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "micrometer.observations.annotations.enabled=true"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureObservability(tracing = false)
+class PrometheusEndpointTest {
+    protected static MockMvc mockMvc;
+
+    @BeforeAll
+    static void beforeAll(
+            @Autowired WebApplicationContext applicationContext,
+            @Autowired SqlStatementMetricsFilter sqlStatementMetricsFilter) {
+        mockMvc = MockMvcBuilders.webAppContextSetup(applicationContext)
+                .addFilters(sqlStatementMetricsFilter)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @WithMockUser(username = "user", authorities = {"user"})
+    @Test
+    @DisplayName("Scrape after a books request exposes the service timer and statement counts")
+    public void scrape_AfterBooksRequest_BookstoreMetricsExposed() throws Exception {
+        // Given
+        mockMvc.perform(get("/books"))
+                .andExpect(status().isOk());
+
+        // When
+        String actual = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // Then
+        assertTrue(actual.lines().anyMatch(line ->
+                line.startsWith("bookstore_service_seconds_count{")
+                        && line.contains("method=\"findAll\"")), actual);
+        assertTrue(actual.lines().anyMatch(line ->
+                line.startsWith("bookstore_sql_statements_count{")
+                        && line.contains("uri=\"/books\"")), actual);
+    }
+}
@@ -0,0 +1,168 @@
+package com.project.bookstore.metrics;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import com.project.bookstore.exception.StatementBudgetExceededException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementBudgetInterceptorTest {
+    private final SqlStatementCounter sqlStatementCounter = new SqlStatementCounter();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private StatementBudgetInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new StatementBudgetInterceptor(sqlStatementCounter);
+        ReflectionTestUtils.setField(interceptor, "failOnExceed", true);
+    }
+
+    @Test
+    @DisplayName("Statements within the budget pass and counting stops with the request")
+    public void postHandle_StatementsWithinBudget_NothingThrown() throws Exception {
+        // Given
+        HandlerMethod handler = handler("findAll");
+        interceptor.preHandle(request, response, handler);
+        runStatements(2);
+
+        // When
+        interceptor.postHandle(request, response, handler, null);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        // Then
+        assertFalse(sqlStatementCounter.isCounting());
+    }
+
+    @Test
+    @DisplayName("Statements run before the handler are not charged to its budget")
+    public void postHandle_StatementsBeforeHandler_NotCounted() throws Exception {
+        // Given
+        HandlerMethod handler = handler("findAll");
+        sqlStatementCounter.start();
+        runStatements(5);
+        interceptor.preHandle(request, response, handler);
+        runStatements(2);
+
+        // When
+        interceptor.postHandle(request, response, handler, null);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        // Then
+        assertTrue(sqlStatementCounter.isCounting());
+        assertEquals(7, sqlStatementCounter.stop());
+    }
+
+    @Test
+    @DisplayName("Exceeding the budget fails a handler without a response body after it ran")
+    public void postHandle_BudgetExceeded_ExceptionThrown() throws Exception {
+        // Given
+        HandlerMethod handler = handler("findAll");
+        interceptor.preHandle(request, response, handler);
+        runStatements(3);
+
+        // When
+        StatementBudgetExceededException exception = assertThrows(
+                StatementBudgetExceededException.class,
+                () -> interceptor.postHandle(request, response, handler, null));
+        interceptor.afterCompletion(request, response, handler, exception);
+
+        // Then
+        assertEquals("GET /books ran 3 SQL statements, its budget is 2", exception.getMessage());
+        assertFalse(sqlStatementCounter.isCounting());
+    }
+
+    @Test
+    @DisplayName("Exceeding the budget is only logged by default")
+    public void postHandle_BudgetExceededWithoutFailing_NothingThrown() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(interceptor, "failOnExceed", false);
+        HandlerMethod handler = handler("findAll");
+        interceptor.preHandle(request, response, handler);
+        runStatements(3);
+
+        // When
+        // Then
+        assertDoesNotThrow(() -> interceptor.postHandle(request, response, handler, null));
+        assertDoesNotThrow(() -> interceptor.afterCompletion(request, response, handler, null));
+        assertFalse(sqlStatementCounter.isCounting());
+    }
+
+    @Test
+    @DisplayName("Exceeding the budget fails a handler with a response body before it is written")
+    public void beforeBodyWrite_BudgetExceeded_ExceptionThrown() throws Exception {
+        // Given
+        StatementBudgetResponseBodyAdvice advice =
+                new StatementBudgetResponseBodyAdvice(interceptor);
+        HandlerMethod handler = handler("findBooks");
+        MethodParameter returnType = handler.getReturnType();
+        interceptor.preHandle(request, response, handler);
+        runStatements(3);
+
+        // When
+        StatementBudgetExceededException exception = assertThrows(
+                StatementBudgetExceededException.class,
+                () -> advice.beforeBodyWrite(List.of(), returnType,
+                        MediaType.APPLICATION_JSON, null,
+                        new ServletServerHttpRequest(request),
+                        new ServletServerHttpResponse(response)));
+
+        // Then
+        assertTrue(advice.supports(returnType, null));
+        assertEquals("GET /books ran 3 SQL statements, its budget is 2", exception.getMessage());
+        assertFalse(response.isCommitted());
+        assertDoesNotThrow(() -> interceptor.postHandle(request, response, handler, null));
+    }
+
+    @Test
+    @DisplayName("Handlers without a budget are not counted")
+    public void preHandle_NoBudget_CountingNotStarted() throws Exception {
+        // Given
+        HandlerMethod handler = handler("findById");
+
+        // When
+        interceptor.preHandle(request, response, handler);
+
+        // Then
+        assertFalse(sqlStatementCounter.isCounting());
+        assertDoesNotThrow(() -> interceptor.postHandle(request, response, handler, null));
+    }
+
+    private HandlerMethod handler(String methodName) throws NoSuchMethodException {
+        return new HandlerMethod(new TestController(), methodName);
+    }
+
+    private void runStatements(int count) {
+        for (int i = 0; i < count; i++) {
+            sqlStatementCounter.increment();
+        }
+    }
+
+    static class TestController {
+        @StatementBudget(2)
+        public void findAll() {
+        }
+
+        public void findById() {
+        }
+
+        @StatementBudget(2)
+        public List<String> findBooks() {
+            return List.of();
+        }
+    }
+}
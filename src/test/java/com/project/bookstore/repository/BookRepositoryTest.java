@@ -1,6 +1,11 @@
 package com.project.bookstore.repository;
 
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,15 +16,24 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.jdbc.Sql;
+import com.project.bookstore.dto.book.BookDto;
+import com.project.bookstore.dto.book.BookSummaryDto;
+import com.project.bookstore.dto.book.BookWithoutCategoryIdsDto;
+import com.project.bookstore.dto.book.CreateBookRequestDto;
 import com.project.bookstore.model.Book;
 
+import com.project.bookstore.repository.book.BookCursor;
 import com.project.bookstore.repository.book.BookRepository;
+import com.project.bookstore.repository.book.spec.PriceRangeSpecificationProvider;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @Sql(scripts = "classpath:database/repository/book/01-prepare-db-for-book-repository-test.sql",
         executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
@@ -29,6 +43,8 @@ class BookRepositoryTest {
     private static Pageable pageable;
     @Autowired
     private BookRepository bookRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     @BeforeAll
     public static void setUp() {
@@ -93,4 +109,196 @@ class BookRepositoryTest {
         // Then
         assertEquals(expected, actual.stream().toList());
     }
+
+    // Find all book projections
+    @Test
+    @DisplayName("Find all book dtos selects book columns and category ids")
+    public void findAllBookDtos_ValidPageable_BookDtosReturned() {
+        // Given
+        BookDto expected = new BookDto(
+                1L,
+                "Book Title 1",
+                "Author Name 1",
+                "978-0-00-000000-1",
+                new BigDecimal("19.99"),
+                "Description for Book 1",
+                "https://coverimage1.jpg",
+                Set.of(1L));
+
+        // When
+        Page<BookDto> actual = bookRepository.findAllBookDtos(Specification.where(null), pageable);
+
+        // Then
+        assertEquals(2, actual.getTotalElements());
+        assertEquals(expected, actual.getContent().get(0));
+    }
+
+    @Test
+    @DisplayName("Find all book summaries does not load descriptions")
+    public void findAllBookSummaries_ValidPageable_BookSummariesReturned() {
+        // Given
+        BookSummaryDto expected = new BookSummaryDto(
+                2L,
+                "Book Title 2",
+                "Author Name 2",
+                "978-0-00-000000-2",
+                new BigDecimal("29.99"),
+                "https://coverimage2.jpg");
+        Specification<Book> spec = (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("isbn"), "978-0-00-000000-2");
+
+        // When
+        Page<BookSummaryDto> actual = bookRepository.findAllBookSummaries(spec, pageable);
+
+        // Then
+        assertEquals(List.of(expected), actual.getContent());
+    }
+
+    // Find all book projections by price range
+    @Test
+    @DisplayName("Find all book dtos with min and max price")
+    public void findAllBookDtos_PriceBetweenMinAndMax_MatchingBooksReturned() {
+        // Given
+        Specification<Book> spec = new PriceRangeSpecificationProvider()
+                .getSpecification(new String[]{"10", "20"});
+
+        // When
+        Page<BookDto> actual = bookRepository.findAllBookDtos(spec, pageable);
+
+        // Then
+        assertEquals(1, actual.getTotalElements());
+        assertEquals(1L, actual.getContent().get(0).id());
+    }
+
+    @Test
+    @DisplayName("Find all book dtos with only min price")
+    public void findAllBookDtos_PriceAboveMin_MatchingBooksReturned() {
+        // Given
+        Specification<Book> spec = new PriceRangeSpecificationProvider()
+                .getSpecification(new String[]{"29.99", null});
+
+        // When
+        Page<BookDto> actual = bookRepository.findAllBookDtos(spec, pageable);
+
+        // Then
+        assertEquals(1, actual.getTotalElements());
+        assertEquals(2L, actual.getContent().get(0).id());
+    }
+
+    // Batch import
+    @Test
+    @DisplayName("Find existing isbns and category ids among requested ones")
+    public void findExisting_IsbnsAndCategoryIds_OnlyExistingReturned() {
+        // When
+        Set<String> isbns = bookRepository.findExistingIsbns(
+                List.of("978-0-00-000000-1", "978-0-00-000000-9"));
+        Set<Long> categoryIds = bookRepository.findExistingCategoryIds(List.of(1L, 99L));
+
+        // Then
+        assertEquals(Set.of("978-0-00-000000-1"), isbns);
+        assertEquals(Set.of(1L), categoryIds);
+    }
+
+    @Test
+    @DisplayName("Insert all writes books and their category links")
+    public void insertAll_ValidBooks_BooksAndCategoriesInserted() {
+        // Given
+        CreateBookRequestDto requestDto = new CreateBookRequestDto(
+                "Book Title 3",
+                "Author Name 3",
+                "978-0-00-000000-3",
+                new BigDecimal("39.99"),
+                "Description for Book 3",
+                "https://coverimage3.jpg",
+                List.of(1L));
+
+        // When
+        bookRepository.insertAll(List.of(requestDto));
+        Page<Book> actual = bookRepository.findAllByCategoriesId(1L, pageable);
+
+        // Then
+        assertEquals(3, actual.getTotalElements());
+        assertEquals("978-0-00-000000-3", actual.getContent().get(2).getIsbn());
+    }
+
+    @Test
+    @DisplayName("Insert all links a book once to a category listed twice")
+    public void insertAll_DuplicateCategoryIds_BookLinkedOnce() {
+        // Given
+        CreateBookRequestDto requestDto = new CreateBookRequestDto(
+                "Book Title 3",
+                "Author Name 3",
+                "978-0-00-000000-3",
+                new BigDecimal("39.99"),
+                "Description for Book 3",
+                "https://coverimage3.jpg",
+                List.of(1L, 1L));
+
+        // When
+        bookRepository.insertAll(List.of(requestDto));
+        Page<Book> actual = bookRepository.findAllByCategoriesId(1L, pageable);
+
+        // Then
+        assertEquals(3, actual.getTotalElements());
+    }
+
+    // Find ids by full text query
+    @Test
+    @DisplayName("Find ids by full text query with word prefixes")
+    public void findIdsByFullTextQuery_MatchingPrefixes_IdsReturned() {
+        // Given
+        List<Long> expected = List.of(1L, 2L);
+
+        // When
+        List<Long> actual = bookRepository.findIdsByFullTextQuery("+boo* +tit*", PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Find ids by full text query without matches")
+    public void findIdsByFullTextQuery_NoMatches_EmptyListReturned() {
+        // When
+        List<Long> actual = bookRepository.findIdsByFullTextQuery("+dictionary*", PageRequest.of(0, 10));
+
+        // Then
+        assertTrue(actual.isEmpty());
+    }
+
+    // Find book slices
+    @Test
+    @DisplayName("Find book dto slice continues after the cursor without a count query")
+    public void findBookDtoSlice_CursorAfterFirstBook_SecondBookReturned() {
+        // Given
+        BookCursor cursor = BookCursor.first(Sort.by(Sort.Direction.DESC, "price"));
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        // When
+        Slice<BookDto> first = bookRepository.findBookDtoSlice(Specification.where(null), cursor, 1);
+        statistics.clear();
+        Slice<BookDto> second = bookRepository.findBookDtoSlice(
+                Specification.where(null), cursor.after(first.getContent().get(0)), 1);
+
+        // Then
+        assertEquals(2L, first.getContent().get(0).id());
+        assertTrue(first.hasNext());
+        assertEquals(1L, second.getContent().get(0).id());
+        assertFalse(second.hasNext());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Find book slice by category id with category without books")
+    public void findBookSliceByCategoryId_CategoryWithoutBooks_EmptySliceReturned() {
+        // When
+        Slice<BookWithoutCategoryIdsDto> actual = bookRepository.findBookSliceByCategoryId(
+                2L, BookCursor.first(Sort.unsorted()), 10);
+
+        // Then
+        assertTrue(actual.isEmpty());
+        assertFalse(actual.hasNext());
+    }
 }
@@ -1,7 +1,10 @@
 package com.project.bookstore.repository;
 
+import jakarta.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,7 +22,7 @@ import com.project.bookstore.repository.order.OrderRepository;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @Sql(scripts = "classpath:database/repository/order/01-prepare-db-for-order-repository-test.sql",
         executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
@@ -29,6 +32,8 @@ class OrderRepositoryTest {
     private static Pageable pageable;
     @Autowired
     private OrderRepository orderRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     @BeforeAll
     public static void setUp() {
@@ -100,6 +105,49 @@ class OrderRepositoryTest {
         assertEquals(expected, actual.stream().toList());
     }
 
+    @Test
+    @DisplayName("Find all with items by user email loads only one page of a large history")
+    @Sql(statements = {
+            "INSERT INTO users (id, email, password, first_name, last_name, shipping_address) "
+                    + "VALUES (2, 'heavyBuyer@domain.com', 'password', 'first name', "
+                    + "'last name', 'address')",
+            "INSERT INTO orders (user_id, status, order_date, total, shipping_address) "
+                    + "SELECT 2, 'NEW', '2024-03-29 15:44:10', 19.99, 'address' "
+                    + "FROM (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL "
+                    + "SELECT 3 UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 "
+                    + "UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) a "
+                    + "CROSS JOIN (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL "
+                    + "SELECT 3 UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 "
+                    + "UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) b "
+                    + "CROSS JOIN (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL "
+                    + "SELECT 3 UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 "
+                    + "UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) c "
+                    + "CROSS JOIN (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL "
+                    + "SELECT 3 UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 "
+                    + "UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) d",
+            "INSERT INTO order_items (order_id, book_id, quantity, price, is_deleted) "
+                    + "SELECT o.id, 1, 1, 19.99, false FROM orders o WHERE o.user_id = 2"})
+    public void findAllWithItemsByUserEmail_TenThousandOrders_OnlyPageLoaded() {
+        // Given
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        // When
+        Page<Order> actual = orderRepository.findAllWithItemsByUserEmail(
+                "heavyBuyer@domain.com", PageRequest.of(1, 20, Sort.by("id")));
+
+        // Then
+        assertEquals(10000, actual.getTotalElements());
+        assertEquals(20, actual.getNumberOfElements());
+        assertEquals(20, statistics.getEntityStatistics(Order.class.getName()).getLoadCount());
+        assertEquals(40, statistics.getEntityLoadCount());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        actual.forEach(order -> assertEquals(1, order.getOrderItems().size()));
+    }
+
     // Find with items and user by id
     @Test
     @DisplayName("Find with items and user by id with valid id")
@@ -0,0 +1,252 @@
+package com.project.bookstore.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import com.project.bookstore.repository.book.BookRepository;
+import com.project.bookstore.repository.order.OrderRepository;
+import com.project.bookstore.repository.order.item.OrderItemRepository;
+import com.project.bookstore.repository.shopping.cart.ShoppingCartRepository;
+import com.project.bookstore.repository.shopping.item.CartItemRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Calls the hot repository queries, captures the SQL that Hibernate prepares for
+ * them and runs EXPLAIN for it with the same parameters. Fails when MySQL plans a
+ * full scan of any table. The tables are seeded with enough rows and analyzed so
+ * that the optimizer has no reason to prefer a scan.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql(scripts = "classpath:database/repository/query-plan/01-prepare-db-for-query-plan-test.sql",
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:database/repository/query-plan/02-clear-db-after-query-plan-test.sql",
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class QueryPlanTest {
+    private static final String FULL_TABLE_SCAN = "ALL";
+    private static final String EMAIL = "user50@domain.com";
+    private static final Long USER_ID = 50L;
+    private static final int PAGE_SIZE = 20;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private StatementCapture statementCapture;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Test
+    @DisplayName("OrderRepository.findIdsByUserEmail uses the orders user index")
+    public void findIdsByUserEmail_SeededOrders_NoFullTableScan() {
+        // Given
+        String sql = captureSql(() ->
+                orderRepository.findIdsByUserEmail(EMAIL, PageRequest.of(0, PAGE_SIZE)));
+
+        // When
+        List<String> actual = findFullyScannedTables(sql, EMAIL, 0, PAGE_SIZE);
+
+        // Then
+        assertEquals(List.of(), actual);
+    }
+
+    @Test
+    @DisplayName("OrderRepository.findAllWithItemsByIdIn uses primary and order items keys")
+    public void findAllWithItemsByIdIn_SeededOrders_NoFullTableScan() {
+        // Given
+        String sql = captureSql(() ->
+                orderRepository.findAllWithItemsByIdIn(List.of(11L, 12L, 13L)));
+
+        // When
+        List<String> actual = findFullyScannedTables(sql, 11L, 12L, 13L);
+
+        // Then
+        assertEquals(List.of(), actual);
+    }
+
+    @Test
+    @DisplayName("OrderItemRepository.findDtoByIdAndOrderIdAndUserEmail uses only keys")
+    public void findDtoByIdAndOrderIdAndUserEmail_SeededOrders_NoFullTableScan() {
+        // Given
+        String sql = captureSql(() ->
+                orderItemRepository.findDtoByIdAndOrderIdAndUserEmail(981L, 491L, EMAIL));
+
+        // When
+        List<String> actual = findFullyScannedTables(sql, 981L, 491L, EMAIL);
+
+        // Then
+        assertEquals(List.of(), actual);
+    }
+
+    @Test
+    @DisplayName("OrderItemRepository.sumPriceByOrderId uses the order items order index")
+    public void sumPriceByOrderId_SeededOrders_NoFullTableScan() {
+        // Given
+        String sql = captureSql(() -> orderItemRepository.sumPriceByOrderId(491L));
+
+        // When
+        List<String> actual = findFullyScannedTables(sql, 491L);
+
+        // Then
+        assertEquals(List.of(), actual);
+    }
+
+    @Test
+    @DisplayName("BookRepository.findAllByCategoriesId and its count use the book category index")
+    public void findAllByCategoriesId_SeededBooks_NoFullTableScan() {
+        // Given
+        List<String> statements = captureSql(2, () ->
+                bookRepository.findAllByCategoriesId(3L, PageRequest.of(0, PAGE_SIZE)));
+
+        // When
+        List<String> actual = new ArrayList<>();
+        actual.addAll(findFullyScannedTables(statements.get(0), 3L, 0, PAGE_SIZE));
+        actual.addAll(findFullyScannedTables(statements.get(1), 3L));
+
+        // Then
+        assertEquals(List.of(), actual);
+    }
+
+    @Test
+    @DisplayName("ShoppingCartRepository.findWithCartItemsByUserId uses only keys")
+    public void findWithCartItemsByUserId_SeededCarts_NoFullTableScan() {
+        // Given
+        String sql = captureSql(() ->
+                shoppingCartRepository.findWithCartItemsByUserId(USER_ID));
+
+        // When
+        List<String> actual = findFullyScannedTables(sql, USER_ID);
+
+        // Then
+        assertEquals(List.of(), actual);
+    }
+
+    @Test
+    @DisplayName("CartItemRepository.findWithoutBookTitleDtosByShoppingCartId uses the cart index")
+    public void findWithoutBookTitleDtosByShoppingCartId_SeededCarts_NoFullTableScan() {
+        // Given
+        String sql = captureSql(() ->
+                cartItemRepository.findWithoutBookTitleDtosByShoppingCartId(50L));
+
+        // When
+        List<String> actual = findFullyScannedTables(sql, 50L);
+
+        // Then
+        assertEquals(List.of(), actual);
+    }
+
+    @Test
+    @DisplayName("OrderItemRepository.insertAllFromShoppingCart reads the cart by its index")
+    public void insertAllFromShoppingCart_SeededCarts_NoFullTableScan() {
+        // Given
+        String sql = captureSql(() ->
+                orderItemRepository.insertAllFromShoppingCart(491L, 50L));
+
+        // When
+        List<String> actual = findFullyScannedTables(sql, 491L, 50L);
+
+        // Then
+        assertEquals(List.of(), actual);
+    }
+
+    @Test
+    @DisplayName("ShoppingCartRepository.updateTotalsByIdIn uses only keys")
+    public void updateTotalsByIdIn_SeededCarts_NoFullTableScan() {
+        // Given
+        String sql = captureSql(() ->
+                shoppingCartRepository.updateTotalsByIdIn(List.of(1L)));
+
+        // When
+        List<String> actual = findFullyScannedTables(sql, 1L);
+
+        // Then
+        assertEquals(List.of(), actual);
+    }
+
+    private String captureSql(Runnable repositoryCall) {
+        return captureSql(1, repositoryCall).get(0);
+    }
+
+    private List<String> captureSql(int expectedStatements, Runnable repositoryCall) {
+        statementCapture.start();
+        try {
+            repositoryCall.run();
+        } finally {
+            statementCapture.stop();
+        }
+        List<String> statements = statementCapture.statements();
+        assertEquals(expectedStatements, statements.size(), () -> "Captured " + statements);
+        return statements;
+    }
+
+    private List<String> findFullyScannedTables(String sql, Object... params) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, params).stream()
+                .filter(row -> FULL_TABLE_SCAN.equals(row.get("type")))
+                .map(row -> String.valueOf(row.get("table")))
+                .toList();
+    }
+
+    /**
+     * Records the SQL Hibernate prepares between {@link #start()} and {@link #stop()}.
+     * Only Hibernate's statements are captured, since their plans are checked.
+     */
+    static class StatementCapture implements StatementInspector {
+        private final List<String> statements = new ArrayList<>();
+        private volatile boolean capturing;
+
+        @Override
+        public String inspect(String sql) {
+            if (capturing) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+
+        void start() {
+            statements.clear();
+            capturing = true;
+        }
+
+        void stop() {
+            capturing = false;
+        }
+
+        List<String> statements() {
+            return List.copyOf(statements);
+        }
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+        @Bean
+        StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementCaptureCustomizer(
+                StatementCapture statementCapture) {
+            return properties -> properties.put(
+                    AvailableSettings.STATEMENT_INSPECTOR, statementCapture);
+        }
+    }
+}
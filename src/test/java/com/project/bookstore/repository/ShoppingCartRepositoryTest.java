@@ -1,6 +1,8 @@
 package com.project.bookstore.repository;
 
+import java.math.BigDecimal;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.DisplayName;
@@ -8,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import com.project.bookstore.model.CartItem;
 import com.project.bookstore.model.ShoppingCart;
@@ -27,44 +30,46 @@ class ShoppingCartRepositoryTest {
     private ShoppingCartRepository shoppingCartRepository;
     @Autowired
     private CartItemRepository cartItemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
 
-    // Find by user email
+    // Find by user id
     @Test
-    @DisplayName("Find by user email with valid email")
-    public void findByUserEmail_WithValidEmail_ShouldReturnShoppingCart() {
+    @DisplayName("Find by user id with valid id")
+    public void findByUserId_WithValidId_ShouldReturnShoppingCart() {
         // Given
-        String validEmail = "uniqueUser456@sample.net";
+        Long validId = 1L;
         Optional<ShoppingCart> expected = shoppingCartRepository.findById(1L);
         // When
-        Optional<ShoppingCart> actual = shoppingCartRepository.findByUserEmail(validEmail);
+        Optional<ShoppingCart> actual = shoppingCartRepository.findByUserId(validId);
         // Then
         assertEquals(expected, actual);
     }
 
     @Test
-    @DisplayName("Find by user email with invalid email")
-    public void findByUserEmail_WithInvalidEmail_ShouldReturnEmpty() {
+    @DisplayName("Find by user id with invalid id")
+    public void findByUserId_WithInvalidId_ShouldReturnEmpty() {
         // Given
-        String invalidEmail = "invalid email";
+        Long invalidId = 100L;
         Optional<ShoppingCart> expected = Optional.empty();
 
         // When
-        Optional<ShoppingCart> actual = shoppingCartRepository.findByUserEmail(invalidEmail);
+        Optional<ShoppingCart> actual = shoppingCartRepository.findByUserId(invalidId);
 
         // Then
         assertEquals(expected, actual);
     }
 
     @Test
-    @DisplayName("Find by user email with null email")
-    public void findByUserEmail_WithNullEmail_ShouldThrowIllegalArgumentException() {
+    @DisplayName("Find by user id with null id")
+    public void findByUserId_WithNullId_ShouldReturnEmpty() {
         // Given
-        String nullEmail = null;
+        Long nullId = null;
         Optional<ShoppingCart> expected = Optional.empty();
 
         // When
-        Optional<ShoppingCart> actual = shoppingCartRepository.findByUserEmail(nullEmail);
+        Optional<ShoppingCart> actual = shoppingCartRepository.findByUserId(nullId);
 
         // Then
         assertEquals(expected, actual);
@@ -72,15 +77,15 @@ class ShoppingCartRepositoryTest {
 
     // Find with cart items by user id
     @Test
-    @DisplayName("Find with cart items by user email with valid email")
-    public void findWithCartItemsByUserEmail_WithValidEmail_ShouldReturnShoppingCartWithItems() {
+    @DisplayName("Find with cart items by user id with valid id")
+    public void findWithCartItemsByUserId_WithValidId_ShouldReturnShoppingCartWithItems() {
         // Given
-        String validEmail = "uniqueUser456@sample.net";
+        Long validId = 1L;
         Set<CartItem> expected = new HashSet<>(cartItemRepository.findAll());
 
         // When
         Set<CartItem> actual = shoppingCartRepository
-                .findWithCartItemsByUserEmail(validEmail)
+                .findWithCartItemsByUserId(validId)
                 .get()
                 .getCartItems();
 
@@ -89,32 +94,61 @@ class ShoppingCartRepositoryTest {
     }
 
     @Test
-    @DisplayName("Find with cart items by user email with invalid email")
-    public void findWithCartItemsByUserEmail_WithInvalidEmail_ShouldReturnEmpty() {
+    @DisplayName("Find with cart items by user id with invalid id")
+    public void findWithCartItemsByUserId_WithInvalidId_ShouldReturnEmpty() {
         // Given
-        String invalidEmail = "invalid email";
+        Long invalidId = 100L;
         Optional<ShoppingCart> expected = Optional.empty();
 
         // When
         Optional<ShoppingCart> actual = shoppingCartRepository
-                .findWithCartItemsByUserEmail(invalidEmail);
+                .findWithCartItemsByUserId(invalidId);
 
         // Then
         assertEquals(expected, actual);
     }
 
     @Test
-    @DisplayName("Find with cart items by user email with null email")
-    public void findWithCartItemsByUserEmail_WithNullEmail_ShouldThrowIllegalArgumentException() {
+    @DisplayName("Find with cart items by user id with null id")
+    public void findWithCartItemsByUserId_WithNullId_ShouldReturnEmpty() {
         // Given
-        String nullEmail = null;
+        Long nullId = null;
         Optional<ShoppingCart> expected = Optional.empty();
 
         // When
         Optional<ShoppingCart> actual = shoppingCartRepository
-                .findWithCartItemsByUserEmail(nullEmail);
+                .findWithCartItemsByUserId(nullId);
 
         // Then
         assertEquals(expected, actual);
     }
+
+    // Totals
+    @Test
+    @DisplayName("Find ids by book id returns the carts that contain the book")
+    public void findIdsByBookId_BookInCart_CartIdReturned() {
+        // When
+        List<Long> actual = shoppingCartRepository.findIdsByBookId(1L);
+
+        // Then
+        assertEquals(List.of(1L), actual);
+        assertEquals(Optional.of(1L),
+                shoppingCartRepository.findIdByUserId(1L));
+    }
+
+    @Test
+    @DisplayName("Update totals by ids recomputes the totals with the current book prices")
+    public void updateTotalsByIdIn_BookPriceChanged_TotalRecomputed() {
+        // Given
+        jdbcTemplate.update("UPDATE books SET price = 10 WHERE id = 1");
+
+        // When
+        int actual = shoppingCartRepository.updateTotalsByIdIn(
+                shoppingCartRepository.findIdsByBookId(1L));
+
+        // Then
+        assertEquals(1, actual);
+        assertEquals(new BigDecimal("699.80"), jdbcTemplate.queryForObject(
+                "SELECT total FROM shopping_carts WHERE id = 1", BigDecimal.class));
+    }
 }
\ No newline at end of file
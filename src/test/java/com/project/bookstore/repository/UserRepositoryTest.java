@@ -6,14 +6,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.transaction.TestTransaction;
+import com.project.bookstore.config.CacheConfig;
 import com.project.bookstore.model.User;
 import com.project.bookstore.repository.user.UserRepository;
+import com.project.bookstore.security.UserCacheEvictionListener;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheConfig.class, UserCacheEvictionListener.class})
 @Sql(scripts = "classpath:database/repository/user/01-prepare-db-for-user-repository-test.sql",
         executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
 @Sql(scripts = "classpath:database/repository/user/02-clear-db-after-user-repository-test.sql",
@@ -21,6 +30,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private CacheManager cacheManager;
 
     // Find by email
     @Test
@@ -62,4 +73,27 @@ class UserRepositoryTest {
         // Then
         assertEquals(expected, actual);
     }
-}
\ No newline at end of file
+
+    // User cache eviction
+    @Test
+    @DisplayName("Updating a user evicts its cached principal and role version after commit")
+    public void saveAndFlush_UserUpdated_CachedPrincipalEvictedAfterCommit() {
+        // Given
+        User user = userRepository.findById(1L).orElseThrow();
+        Cache principals = cacheManager.getCache(CacheConfig.PRINCIPALS);
+        Cache roleVersions = cacheManager.getCache(CacheConfig.ROLE_VERSIONS);
+        principals.putIfAbsent(user.getEmail(), user);
+        roleVersions.putIfAbsent(user.getId(), Optional.of(user.getRoleVersion()));
+
+        // When
+        user.setRoleVersion(user.getRoleVersion() + 1);
+        userRepository.saveAndFlush(user);
+        assertNotNull(principals.get(user.getEmail()));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        // Then
+        assertNull(principals.get(user.getEmail()));
+        assertNull(roleVersions.get(user.getId()));
+    }
+}
@@ -0,0 +1,172 @@
+package com.project.bookstore.security;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.project.bookstore.model.Role;
+import com.project.bookstore.model.User;
+import com.project.bookstore.repository.user.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+    private static final Long USER_ID = 1L;
+    private static final String EMAIL = "user@example.com";
+    private static final int ROLE_VERSION = 3;
+    private final JwtUtil jwtUtil = new JwtUtil(100);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final MockFilterChain filterChain = new MockFilterChain();
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+    @Mock
+    private UserRepository userRepository;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(
+                jwtUtil, userDetailsService, userRepository, meterRegistry);
+        ReflectionTestUtils.setField(filter, "statelessAuthorities", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Stateless token with the current role version is authenticated from its claims")
+    public void doFilter_StatelessTokenCurrentRoleVersion_AuthenticatedFromClaims()
+            throws Exception {
+        // Given
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(user()));
+        when(userRepository.findRoleVersionById(USER_ID)).thenReturn(Optional.of(ROLE_VERSION));
+
+        // When
+        filter.doFilter(request, response, filterChain);
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        User principal = (User) authentication.getPrincipal();
+        assertEquals(USER_ID, principal.getId());
+        assertEquals(EMAIL, principal.getEmail());
+        assertEquals(Set.of("admin"), authentication.getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet()));
+        assertNotNull(filterChain.getRequest());
+        assertEquals(1, outcomeCount("authenticated"));
+        verify(userDetailsService, never()).loadCachedUserByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("Stateless token with an outdated role version is rejected")
+    public void doFilter_StatelessTokenOutdatedRoleVersion_NotAuthenticated() throws Exception {
+        // Given
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(user()));
+        when(userRepository.findRoleVersionById(USER_ID))
+                .thenReturn(Optional.of(ROLE_VERSION + 1));
+
+        // When
+        filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(filterChain.getRequest());
+        assertEquals(1, outcomeCount("rejected"));
+        verify(userDetailsService, never()).loadCachedUserByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("Stateless token of a deleted user is rejected")
+    public void doFilter_StatelessTokenUserNotFound_NotAuthenticated() throws Exception {
+        // Given
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(user()));
+        when(userRepository.findRoleVersionById(USER_ID)).thenReturn(Optional.empty());
+
+        // When
+        filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1, outcomeCount("rejected"));
+    }
+
+    @Test
+    @DisplayName("Token without authority claims falls back to the principal lookup")
+    public void doFilter_TokenWithoutAuthorityClaims_PrincipalLoaded() throws Exception {
+        // Given
+        User user = user();
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(EMAIL));
+        when(userDetailsService.loadCachedUserByUsername(EMAIL)).thenReturn(user);
+
+        // When
+        filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertEquals(user, SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getPrincipal());
+        verify(userRepository, never()).findRoleVersionById(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Authority claims are ignored when stateless authorities are disabled")
+    public void doFilter_StatelessAuthoritiesDisabled_PrincipalLoaded() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(filter, "statelessAuthorities", false);
+        User user = user();
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(user));
+        when(userDetailsService.loadCachedUserByUsername(EMAIL)).thenReturn(user);
+
+        // When
+        filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertEquals(user, SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getPrincipal());
+        verify(userRepository, never()).findRoleVersionById(USER_ID);
+    }
+
+    private User user() {
+        Role role = new Role();
+        role.setRoleName(Role.RoleName.ADMIN);
+        User user = new User();
+        user.setId(USER_ID);
+        user.setEmail(EMAIL);
+        user.setRoles(Set.of(role));
+        user.setRoleVersion(ROLE_VERSION);
+        return user;
+    }
+
+    private long outcomeCount(String outcome) {
+        return meterRegistry.timer(JwtAuthenticationFilter.AUTHENTICATION_TIMER,
+                "outcome", outcome).count();
+    }
+}
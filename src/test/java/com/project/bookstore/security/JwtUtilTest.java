@@ -0,0 +1,111 @@
+package com.project.bookstore.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import io.jsonwebtoken.Claims;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTest {
+    private static final String EMAIL = "user@example.com";
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-03-29T15:44:10Z"));
+    private final JwtUtil jwtUtil = new JwtUtil(100, clock);
+
+    @Test
+    @DisplayName("Get verified claims of a valid token")
+    public void getVerifiedClaims_ValidToken_ReturnsClaims() {
+        // Given
+        String token = jwtUtil.generateToken(EMAIL);
+
+        // When
+        Claims actual = jwtUtil.getVerifiedClaims(token);
+
+        // Then
+        assertEquals(EMAIL, actual.getSubject());
+    }
+
+    @Test
+    @DisplayName("A second verification of the same token is served from the cache")
+    public void getVerifiedClaims_SameTokenTwice_CachedClaimsReturned() {
+        // Given
+        String token = jwtUtil.generateToken(EMAIL);
+        Claims expected = jwtUtil.getVerifiedClaims(token);
+
+        // When
+        Claims actual = jwtUtil.getVerifiedClaims(token);
+
+        // Then
+        assertSame(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Get verified claims of a token whose signature does not match its payload")
+    public void getVerifiedClaims_TamperedSignature_ExceptionThrown() {
+        // Given
+        String[] token = jwtUtil.generateToken(EMAIL).split("\\.");
+        String[] otherToken = jwtUtil.generateToken("admin@example.com").split("\\.");
+        String tampered = token[0] + "." + otherToken[1] + "." + token[2];
+
+        // When
+        // Then
+        assertThrows(RuntimeException.class, () -> jwtUtil.getVerifiedClaims(tampered));
+    }
+
+    @Test
+    @DisplayName("A cached token is rejected once it expires")
+    public void getVerifiedClaims_CachedTokenExpired_ExceptionThrown() {
+        // Given
+        String token = jwtUtil.generateToken(EMAIL);
+        jwtUtil.getVerifiedClaims(token);
+        clock.advance(Duration.ofMinutes(6));
+
+        // When
+        // Then
+        assertThrows(RuntimeException.class, () -> jwtUtil.getVerifiedClaims(token));
+    }
+
+    @Test
+    @DisplayName("Get verified claims of a malformed token")
+    public void getVerifiedClaims_MalformedToken_ExceptionThrown() {
+        // Given
+        String token = "not.a.token";
+
+        // When
+        // Then
+        assertThrows(RuntimeException.class, () -> jwtUtil.getVerifiedClaims(token));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.bookstore.security;
+
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.project.bookstore.config.CacheConfig;
+import com.project.bookstore.model.Role;
+import com.project.bookstore.model.User;
+import com.project.bookstore.repository.user.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the user details service behind the caching proxy of {@link CacheConfig}
+ * with a mocked repository, so that a repository call shows a cache miss. The
+ * proxy subclasses the service like in the application, since the filter
+ * depends on the class.
+ */
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@SpringBootTest(classes = {
+        CacheConfig.class,
+        CustomUserDetailsService.class,
+        UserCacheEvictionListener.class})
+class PrincipalCacheTest {
+    private static final Long USER_ID = 1L;
+    private static final String EMAIL = "user@example.com";
+    private final JwtUtil jwtUtil = new JwtUtil(100);
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private UserCacheEvictionListener userCacheEvictionListener;
+    @Autowired
+    private CacheManager cacheManager;
+    @MockBean
+    private UserRepository userRepository;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames()
+                .forEach(name -> cacheManager.getCache(name).clear());
+        filter = new JwtAuthenticationFilter(
+                jwtUtil, userDetailsService, userRepository, new SimpleMeterRegistry());
+        user = user();
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    @DisplayName("Requests with the same token load the principal once")
+    public void doFilter_SameUserTwice_PrincipalLoadedOnce() throws Exception {
+        // Given
+        String token = jwtUtil.generateToken(EMAIL);
+        authenticate(token);
+
+        // When
+        Object actual = authenticate(token);
+
+        // Then
+        assertEquals(user, actual);
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    @DisplayName("Updating a user evicts the cached principal and role version")
+    public void evictPrincipal_UserUpdated_PrincipalLoadedAgain() throws Exception {
+        // Given
+        String token = jwtUtil.generateToken(EMAIL);
+        authenticate(token);
+        cacheManager.getCache(CacheConfig.ROLE_VERSIONS).put(USER_ID, Optional.of(1));
+
+        // When
+        userCacheEvictionListener.evictPrincipal(user);
+        authenticate(token);
+
+        // Then
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+        assertNull(cacheManager.getCache(CacheConfig.ROLE_VERSIONS).get(USER_ID));
+    }
+
+    @Test
+    @DisplayName("Login always checks the credentials against the database")
+    public void loadUserByUsername_PrincipalCached_RepositoryQueried() {
+        // Given
+        userDetailsService.loadCachedUserByUsername(EMAIL);
+
+        // When
+        userDetailsService.loadUserByUsername(EMAIL);
+
+        // Then
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    private Object authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private User user() {
+        Role role = new Role();
+        role.setRoleName(Role.RoleName.USER);
+        User user = new User();
+        user.setId(USER_ID);
+        user.setEmail(EMAIL);
+        user.setRoles(Set.of(role));
+        return user;
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.bookstore.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.security.test.context.support.WithSecurityContext;
+import com.project.bookstore.model.Role;
+
+/**
+ * Authenticates the test with a {@link com.project.bookstore.model.User} principal,
+ * like the JWT filter does, so endpoints can read the user id from it.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@WithSecurityContext(factory = WithMockBookstoreUserSecurityContextFactory.class)
+public @interface WithMockBookstoreUser {
+    long id();
+
+    String email();
+
+    Role.RoleName[] roles() default Role.RoleName.USER;
+}
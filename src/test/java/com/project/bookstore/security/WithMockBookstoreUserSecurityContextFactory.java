@@ -0,0 +1,33 @@
+package com.project.bookstore.security;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithSecurityContextFactory;
+import com.project.bookstore.model.Role;
+import com.project.bookstore.model.User;
+
+public class WithMockBookstoreUserSecurityContextFactory
+        implements WithSecurityContextFactory<WithMockBookstoreUser> {
+    @Override
+    public SecurityContext createSecurityContext(WithMockBookstoreUser annotation) {
+        User user = new User();
+        user.setId(annotation.id());
+        user.setEmail(annotation.email());
+        user.setRoles(Arrays.stream(annotation.roles())
+                .map(this::toRole)
+                .collect(Collectors.toSet()));
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(
+                user, null, user.getAuthorities()));
+        return context;
+    }
+
+    private Role toRole(Role.RoleName roleName) {
+        Role role = new Role();
+        role.setRoleName(roleName);
+        return role;
+    }
+}
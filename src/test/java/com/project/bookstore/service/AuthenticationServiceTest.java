@@ -2,6 +2,7 @@ package com.project.bookstore.service;
 
 import com.project.bookstore.dto.user.UserLoginRequestDto;
 import com.project.bookstore.dto.user.UserLoginResponseDto;
+import com.project.bookstore.model.User;
 import com.project.bookstore.security.AuthenticationService;
 import com.project.bookstore.security.JwtUtil;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +15,7 @@ import org.springframework.security.authentication.AuthenticationCredentialsNotF
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -48,6 +50,26 @@ class AuthenticationServiceTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Authenticate with valid credentials and stateless authorities enabled")
+    public void authenticate_StatelessAuthorities_TokenWithAuthorityClaimsReturned() {
+        // Given
+        ReflectionTestUtils.setField(authenticationService, "statelessAuthorities", true);
+        UserLoginRequestDto requestDto = new UserLoginRequestDto("user@example.com", "password");
+        Authentication authentication = mock(Authentication.class);
+        User user = mock(User.class);
+        when(authenticationManager.authenticate(any(Authentication.class))).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(user);
+        when(jwtUtil.generateToken(user)).thenReturn("token");
+        UserLoginResponseDto expected = new UserLoginResponseDto("token");
+
+        // When
+        UserLoginResponseDto actual = authenticationService.authenticate(requestDto);
+
+        // Then
+        assertEquals(expected, actual);
+    }
+
     @Test
     @DisplayName("Authenticate with invalid credentials")
     public void authenticate_InvalidCredentials_BadCredentialsExceptionThrown() {
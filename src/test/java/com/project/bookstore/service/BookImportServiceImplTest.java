@@ -0,0 +1,225 @@
+package com.project.bookstore.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.project.bookstore.dto.book.BookImportErrorDto;
+import com.project.bookstore.dto.book.BookImportResultDto;
+import com.project.bookstore.dto.book.CreateBookRequestDto;
+import com.project.bookstore.exception.BookImportException;
+import com.project.bookstore.repository.book.BookRepository;
+import com.project.bookstore.service.book.BookImportFormat;
+import com.project.bookstore.service.book.BookImportServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceImplTest {
+    private static final String CSV_HEADER
+            = "title,author,isbn,price,description,coverImage,categoryIds\n";
+    @Mock
+    private BookRepository bookRepository;
+    private BookImportServiceImpl bookImportService;
+
+    @BeforeEach
+    public void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        bookImportService = new BookImportServiceImpl(
+                bookRepository, new ObjectMapper(), validator);
+        ReflectionTestUtils.setField(bookImportService, "batchSize", 2);
+    }
+
+    @Test
+    @DisplayName("Import NDJSON writes valid rows in batches of configured size")
+    public void importBooks_ValidNdjsonRows_RowsInsertedInBatches() {
+        // Given
+        InputStream inputStream = toInputStream(
+                toJson("Book 1", "978-0-00-000000-1")
+                        + toJson("Book 2", "978-0-00-000000-2")
+                        + "\n"
+                        + toJson("Book 3", "978-0-00-000000-3"));
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        when(bookRepository.findExistingCategoryIds(anyCollection())).thenReturn(Set.of(1L));
+
+        // When
+        BookImportResultDto actual = bookImportService.importBooks(
+                inputStream, BookImportFormat.NDJSON);
+
+        // Then
+        assertEquals(new BookImportResultDto(3, 0, List.of()), actual);
+        verify(bookRepository, times(2)).insertAll(any());
+    }
+
+    @Test
+    @DisplayName("Import NDJSON reports malformed and invalid rows with line numbers")
+    public void importBooks_InvalidNdjsonRows_ErrorsReported() {
+        // Given
+        InputStream inputStream = toInputStream("{\"title\": \n"
+                + toJson(" ", "978-0-00-000000-1")
+                + "null\n");
+
+        // When
+        BookImportResultDto actual = bookImportService.importBooks(
+                inputStream, BookImportFormat.NDJSON);
+
+        // Then
+        assertEquals(0, actual.imported());
+        assertEquals(3, actual.failed());
+        assertEquals(List.of(1L, 2L, 3L), actual.errors().stream()
+                .map(BookImportErrorDto::line)
+                .toList());
+        assertEquals("title: must not be blank", actual.errors().get(1).message());
+        verify(bookRepository, never()).insertAll(any());
+    }
+
+    @Test
+    @DisplayName("Import rejects duplicate isbns and unknown categories before writing")
+    public void importBooks_ExistingIsbnAndUnknownCategory_RowsRejected() {
+        // Given
+        InputStream inputStream = toInputStream(
+                toJson("Book 1", "978-0-00-000000-1")
+                        + toJson("Book 1", "978-0-00-000000-1")
+                        + toJson("Book 2", "978-0-00-000000-2")
+                        + "{\"title\":\"Book 3\",\"author\":\"Author\","
+                        + "\"isbn\":\"978-0-00-000000-3\",\"price\":10,"
+                        + "\"description\":\"Description\","
+                        + "\"coverImage\":\"https://www.example.org/a.jpg\","
+                        + "\"categoryIds\":[2]}\n");
+        when(bookRepository.findExistingIsbns(anyCollection()))
+                .thenReturn(Set.of("978-0-00-000000-2"));
+        when(bookRepository.findExistingCategoryIds(anyCollection())).thenReturn(Set.of(1L));
+
+        // When
+        BookImportResultDto actual = bookImportService.importBooks(
+                inputStream, BookImportFormat.NDJSON);
+
+        // Then
+        assertEquals(new BookImportResultDto(1, 3, List.of(
+                new BookImportErrorDto(2, "Duplicate isbn in import: 978-0-00-000000-1"),
+                new BookImportErrorDto(3, "Book with isbn already exists: 978-0-00-000000-2"),
+                new BookImportErrorDto(4, "Cant find categories by ids: [2]"))), actual);
+    }
+
+    @Test
+    @DisplayName("Import rejects an isbn that was already imported by an earlier batch")
+    public void importBooks_IsbnRepeatedInLaterBatch_RowRejected() {
+        // Given
+        InputStream inputStream = toInputStream(
+                toJson("Book 1", "978-0-00-000000-1")
+                        + toJson("Book 2", "978-0-00-000000-2")
+                        + toJson("Book 1", "978-0-00-000000-1"));
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        when(bookRepository.findExistingCategoryIds(anyCollection())).thenReturn(Set.of(1L));
+
+        // When
+        BookImportResultDto actual = bookImportService.importBooks(
+                inputStream, BookImportFormat.NDJSON);
+
+        // Then
+        assertEquals(new BookImportResultDto(2, 1, List.of(
+                new BookImportErrorDto(3, "Duplicate isbn in import: 978-0-00-000000-1"))),
+                actual);
+        verify(bookRepository, times(1)).insertAll(any());
+    }
+
+    @Test
+    @DisplayName("Import reports every row of a batch that failed to be written")
+    public void importBooks_BatchWriteFails_BatchRowsReported() {
+        // Given
+        InputStream inputStream = toInputStream(
+                toJson("Book 1", "978-0-00-000000-1")
+                        + toJson("Book 2", "978-0-00-000000-2"));
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        when(bookRepository.findExistingCategoryIds(anyCollection())).thenReturn(Set.of(1L));
+        doThrow(new DataIntegrityViolationException("Duplicate entry"))
+                .when(bookRepository).insertAll(any());
+
+        // When
+        BookImportResultDto actual = bookImportService.importBooks(
+                inputStream, BookImportFormat.NDJSON);
+
+        // Then
+        assertEquals(new BookImportResultDto(0, 2, List.of(
+                new BookImportErrorDto(1, "Batch rolled back: Duplicate entry"),
+                new BookImportErrorDto(2, "Batch rolled back: Duplicate entry"))), actual);
+    }
+
+    @Test
+    @DisplayName("Import CSV maps columns by header and supports quoted values")
+    @SuppressWarnings("unchecked")
+    public void importBooks_ValidCsvRows_RowsParsedByHeader() {
+        // Given
+        InputStream inputStream = toInputStream(CSV_HEADER
+                + "\"Book, \"\"First\"\"\",Author,978-0-00-000000-1,19.99,"
+                + "Description,https://www.example.org/a.jpg,1;2\n"
+                + "Book 2,Author,978-0-00-000000-2,abc,Description,,1\n");
+        CreateBookRequestDto expected = new CreateBookRequestDto(
+                "Book, \"First\"",
+                "Author",
+                "978-0-00-000000-1",
+                new BigDecimal("19.99"),
+                "Description",
+                "https://www.example.org/a.jpg",
+                List.of(1L, 2L));
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        when(bookRepository.findExistingCategoryIds(anyCollection())).thenReturn(Set.of(1L, 2L));
+        ArgumentCaptor<List<CreateBookRequestDto>> captor = ArgumentCaptor.forClass(List.class);
+
+        // When
+        BookImportResultDto actual = bookImportService.importBooks(
+                inputStream, BookImportFormat.CSV);
+
+        // Then
+        assertEquals(new BookImportResultDto(1, 1, List.of(
+                new BookImportErrorDto(3, "price: Invalid number abc"))), actual);
+        verify(bookRepository).insertAll(captor.capture());
+        assertEquals(List.of(expected), captor.getValue());
+    }
+
+    @Test
+    @DisplayName("Import CSV with unknown header column")
+    public void importBooks_UnknownCsvColumn_ThrowsBookImportException() {
+        // Given
+        InputStream inputStream = toInputStream("title,publisher\n");
+
+        // When
+        Exception exception = assertThrows(BookImportException.class,
+                () -> bookImportService.importBooks(inputStream, BookImportFormat.CSV));
+
+        // Then
+        assertEquals("Unknown CSV column: publisher", exception.getMessage());
+    }
+
+    private String toJson(String title, String isbn) {
+        return "{\"title\":\"" + title + "\",\"author\":\"Author\",\"isbn\":\"" + isbn
+                + "\",\"price\":10,\"description\":\"Description\","
+                + "\"coverImage\":\"https://www.example.org/a.jpg\",\"categoryIds\":[1]}\n";
+    }
+
+    private InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
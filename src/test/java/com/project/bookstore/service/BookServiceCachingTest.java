@@ -0,0 +1,262 @@
+package com.project.bookstore.service;
+
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.project.bookstore.config.CacheConfig;
+import com.project.bookstore.dto.book.BookDto;
+import com.project.bookstore.dto.book.BookWithoutCategoryIdsDto;
+import com.project.bookstore.dto.book.CreateBookRequestDto;
+import com.project.bookstore.mapper.BookMapper;
+import com.project.bookstore.mapper.CategoryMapper;
+import com.project.bookstore.model.Book;
+import com.project.bookstore.repository.book.BookRepository;
+import com.project.bookstore.repository.book.BookSpecificationBuilder;
+import com.project.bookstore.repository.category.CategoryRepository;
+import com.project.bookstore.repository.shopping.cart.ShoppingCartRepository;
+import com.project.bookstore.service.book.BookService;
+import com.project.bookstore.service.book.BookServiceImpl;
+import com.project.bookstore.service.category.CategoryService;
+import com.project.bookstore.service.category.CategoryServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the book and category services behind the caching proxies of
+ * {@link CacheConfig} with mocked repositories, so that a repository call shows
+ * a cache miss.
+ */
+@SpringBootTest(classes = {CacheConfig.class, BookServiceImpl.class, CategoryServiceImpl.class})
+class BookServiceCachingTest {
+    private static final Long BOOK_ID = 1L;
+    private static final Long CATEGORY_ID = 2L;
+    private static final Pageable PAGEABLE = PageRequest.of(0, 20);
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private CacheManager cacheManager;
+    @MockBean
+    private BookRepository bookRepository;
+    @MockBean
+    private BookMapper bookMapper;
+    @MockBean
+    private BookSpecificationBuilder bookSpecificationBuilder;
+    @MockBean
+    private ShoppingCartRepository shoppingCartRepository;
+    @MockBean
+    private CategoryRepository categoryRepository;
+    @MockBean
+    private CategoryMapper categoryMapper;
+    private final Book book = mock(Book.class);
+    private final BookDto bookDto = mock(BookDto.class);
+    private final BookWithoutCategoryIdsDto bookWithoutCategoryIdsDto =
+            mock(BookWithoutCategoryIdsDto.class);
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames()
+                .forEach(name -> cacheManager.getCache(name).clear());
+        when(bookRepository.findById(BOOK_ID)).thenReturn(Optional.of(book));
+        when(bookRepository.findAllBookDtos(any(), eq(PAGEABLE)))
+                .thenReturn(new PageImpl<>(List.of(bookDto)));
+        when(bookRepository.findAllByCategoriesId(CATEGORY_ID, PAGEABLE))
+                .thenReturn(new PageImpl<>(List.of(book)));
+        when(bookRepository.existsById(BOOK_ID)).thenReturn(true);
+        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        when(bookMapper.toModel(any(CreateBookRequestDto.class))).thenReturn(book);
+        when(bookMapper.toDto(book)).thenReturn(bookDto);
+        when(bookMapper.toBookWithoutCategoryIdsDto(book)).thenReturn(bookWithoutCategoryIdsDto);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("A second find by id is served from the books cache")
+    public void findById_CalledTwice_RepositoryQueriedOnce() {
+        // Given
+        bookService.findById(BOOK_ID);
+
+        // When
+        BookDto actual = bookService.findById(BOOK_ID);
+
+        // Then
+        assertSame(bookDto, actual);
+        verify(bookRepository, times(1)).findById(BOOK_ID);
+    }
+
+    @Test
+    @DisplayName("A second find all of the same page is served from the book pages cache")
+    public void findAll_CalledTwice_RepositoryQueriedOnce() {
+        // Given
+        bookService.findAll(PAGEABLE);
+
+        // When
+        List<BookDto> actual = bookService.findAll(PAGEABLE);
+
+        // Then
+        assertSame(bookDto, actual.get(0));
+        verify(bookRepository, times(1)).findAllBookDtos(any(), eq(PAGEABLE));
+    }
+
+    @Test
+    @DisplayName("A second find by category id is served from the category book pages cache")
+    public void findAllByCategoryId_CalledTwice_RepositoryQueriedOnce() {
+        // Given
+        bookService.findAllByCategoryId(CATEGORY_ID, PAGEABLE);
+
+        // When
+        List<BookWithoutCategoryIdsDto> actual =
+                bookService.findAllByCategoryId(CATEGORY_ID, PAGEABLE);
+
+        // Then
+        assertSame(bookWithoutCategoryIdsDto, actual.get(0));
+        verify(bookRepository, times(1)).findAllByCategoriesId(CATEGORY_ID, PAGEABLE);
+    }
+
+    @Test
+    @DisplayName("Save evicts the book pages and category book pages")
+    public void save_CachesWarm_PagesEvicted() {
+        // Given
+        warmCaches();
+
+        // When
+        bookService.save(mock(CreateBookRequestDto.class));
+        warmCaches();
+
+        // Then
+        verify(bookRepository, times(1)).findById(BOOK_ID);
+        verifyPagesQueriedTwice();
+    }
+
+    @Test
+    @DisplayName("Save all evicts the book pages and category book pages")
+    public void saveAll_CachesWarm_PagesEvicted() {
+        // Given
+        warmCaches();
+        when(bookRepository.saveAll(any())).thenReturn(List.of(book));
+
+        // When
+        bookService.saveAll(new CreateBookRequestDto[] {mock(CreateBookRequestDto.class)});
+        warmCaches();
+
+        // Then
+        verify(bookRepository, times(1)).findById(BOOK_ID);
+        verifyPagesQueriedTwice();
+    }
+
+    @Test
+    @DisplayName("Update evicts the book and all book pages")
+    public void updateById_CachesWarm_BookAndPagesEvicted() {
+        // Given
+        warmCaches();
+
+        // When
+        bookService.updateById(BOOK_ID, mock(CreateBookRequestDto.class));
+        warmCaches();
+
+        // Then
+        verify(bookRepository, times(2)).findById(BOOK_ID);
+        verifyPagesQueriedTwice();
+    }
+
+    @Test
+    @DisplayName("Delete evicts the book and all book pages")
+    public void deleteById_CachesWarm_BookAndPagesEvicted() {
+        // Given
+        warmCaches();
+
+        // When
+        bookService.deleteById(BOOK_ID);
+        warmCaches();
+
+        // Then
+        verify(bookRepository, times(2)).findById(BOOK_ID);
+        verifyPagesQueriedTwice();
+    }
+
+    @Test
+    @DisplayName("Update inside a transaction evicts the book only after the commit")
+    public void updateById_TransactionCommitted_BookEvictedAfterCommit() {
+        // Given
+        bookService.findById(BOOK_ID);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        bookService.updateById(BOOK_ID, mock(CreateBookRequestDto.class));
+        bookService.findById(BOOK_ID);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        bookService.findById(BOOK_ID);
+
+        // Then
+        verify(bookRepository, times(2)).findById(BOOK_ID);
+    }
+
+    @Test
+    @DisplayName("Delete inside a transaction that rolls back keeps the cached book")
+    public void deleteById_TransactionRolledBack_BookStillCached() {
+        // Given
+        bookService.findById(BOOK_ID);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        bookService.deleteById(BOOK_ID);
+        TransactionSynchronizationManager.clearSynchronization();
+        bookService.findById(BOOK_ID);
+
+        // Then
+        verify(bookRepository, times(1)).findById(BOOK_ID);
+    }
+
+    @Test
+    @DisplayName("Deleting a category evicts the books and all book pages")
+    public void deleteCategoryById_CachesWarm_BooksAndPagesEvicted() {
+        // Given
+        warmCaches();
+
+        // When
+        categoryService.deleteById(CATEGORY_ID);
+        warmCaches();
+
+        // Then
+        verify(bookRepository, times(2)).findById(BOOK_ID);
+        verifyPagesQueriedTwice();
+    }
+
+    private void warmCaches() {
+        bookService.findById(BOOK_ID);
+        bookService.findAll(PAGEABLE);
+        bookService.findAllByCategoryId(CATEGORY_ID, PAGEABLE);
+    }
+
+    private void verifyPagesQueriedTwice() {
+        verify(bookRepository, times(2)).findAllBookDtos(any(), eq(PAGEABLE));
+        verify(bookRepository, times(2)).findAllByCategoriesId(CATEGORY_ID, PAGEABLE);
+    }
+}
@@ -1,38 +1,54 @@
 package com.project.bookstore.service;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import com.project.bookstore.dto.book.BookDto;
 import com.project.bookstore.dto.book.BookSearchParameters;
+import com.project.bookstore.dto.book.BookSliceDto;
+import com.project.bookstore.dto.book.BookSummaryDto;
 import com.project.bookstore.dto.book.BookWithoutCategoryIdsDto;
 import com.project.bookstore.dto.book.CreateBookRequestDto;
 import com.project.bookstore.exception.EntityNotFoundException;
+import com.project.bookstore.exception.InvalidCursorException;
 import com.project.bookstore.mapper.BookMapper;
 import com.project.bookstore.model.Book;
+import com.project.bookstore.repository.book.BookCursor;
 import com.project.bookstore.repository.book.BookRepository;
 import com.project.bookstore.repository.book.BookSpecificationBuilder;
+import com.project.bookstore.repository.shopping.cart.ShoppingCartRepository;
 import com.project.bookstore.service.book.BookServiceImpl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -45,6 +61,8 @@ class BookServiceImplTest {
     private BookMapper bookMapper;
     @Mock
     private BookSpecificationBuilder bookSpecificationBuilder;
+    @Mock
+    private ShoppingCartRepository shoppingCartRepository;
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -154,12 +172,11 @@ class BookServiceImplTest {
         // Given
         int expected = 2;
         Pageable pageable = mock(Pageable.class);
-        Page<Book> page = mock(Page.class);
-        Book[] books = {mock(Book.class), mock(Book.class)};
-        when(bookRepository.findAll(pageable)).thenReturn(page);
+        Page<BookDto> page = mock(Page.class);
+        BookDto[] books = {mock(BookDto.class), mock(BookDto.class)};
+        when(bookRepository.findAllBookDtos(any(Specification.class), eq(pageable)))
+                .thenReturn(page);
         when(page.stream()).thenReturn(Arrays.stream(books));
-        when(bookMapper.toDto(any(Book.class)))
-                .thenReturn(mock(BookDto.class));
 
         // When
         List<BookDto> actual = bookService.findAll(pageable);
@@ -176,7 +193,8 @@ class BookServiceImplTest {
         String expected = "Cannot invoke \"org.springframework."
                 + "data.domain.Page.stream()\" because the return "
                 + "value of \"com.project.bookstore.repository.book."
-                + "BookRepository.findAll(org.springframework.data."
+                + "BookRepository.findAllBookDtos(org.springframework."
+                + "data.jpa.domain.Specification, org.springframework.data."
                 + "domain.Pageable)\" is null";
 
         // When
@@ -195,12 +213,11 @@ class BookServiceImplTest {
         BookSearchParameters searchParameters = mock(BookSearchParameters.class);
         Pageable pageable = mock(Pageable.class);
         Specification<Book> bookSpecification = mock(Specification.class);
-        Page<Book> page = mock(Page.class);
-        Book[] books = {mock(Book.class), mock(Book.class)};
+        Page<BookDto> page = mock(Page.class);
+        BookDto[] books = {mock(BookDto.class), mock(BookDto.class)};
         when(bookSpecificationBuilder.build(searchParameters)).thenReturn(bookSpecification);
-        when(bookRepository.findAll(bookSpecification, pageable)).thenReturn(page);
+        when(bookRepository.findAllBookDtos(bookSpecification, pageable)).thenReturn(page);
         when(page.stream()).thenReturn(Arrays.stream(books));
-        when(bookMapper.toDto(any(Book.class))).thenReturn(mock(BookDto.class));
 
         // When
         List<BookDto> actual = bookService.search(searchParameters, pageable);
@@ -217,7 +234,7 @@ class BookServiceImplTest {
         String expected = "Cannot invoke \"org.springframework.data."
                 + "domain.Page.stream()\" because the return value of "
                 + "\"com.project.bookstore.repository.book.BookRepository."
-                + "findAll(org.springframework.data.jpa.domain.Specification, "
+                + "findAllBookDtos(org.springframework.data.jpa.domain.Specification, "
                 + "org.springframework.data.domain.Pageable)\" is null";
 
         // When
@@ -236,7 +253,7 @@ class BookServiceImplTest {
         String expected = "Cannot invoke \"org.springframework"
                 + ".data.domain.Page.stream()\" because the "
                 + "return value of \"com.project.bookstore."
-                + "repository.book.BookRepository.findAll(org."
+                + "repository.book.BookRepository.findAllBookDtos(org."
                 + "springframework.data.jpa.domain.Specification, "
                 + "org.springframework.data.domain.Pageable)\" is null";
         // When
@@ -247,6 +264,62 @@ class BookServiceImplTest {
         assertEquals(expected, actual.getMessage());
     }
 
+    // Test cases for searchFullText method
+    @Test
+    @DisplayName("Search full text keeps the relevance order of the ids")
+    public void searchFullText_ValidQuery_ReturnsBooksInRelevanceOrder() {
+        // Given
+        BookDto first = mock(BookDto.class);
+        BookDto second = mock(BookDto.class);
+        when(first.id()).thenReturn(1L);
+        when(second.id()).thenReturn(2L);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("title"));
+        when(bookRepository.findIdsByFullTextQuery("+effective* +jav*", PageRequest.of(0, 10)))
+                .thenReturn(List.of(2L, 1L));
+        when(bookRepository.findAllBookDtosByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(first, second));
+
+        // When
+        List<BookDto> actual = bookService.searchFullText("Effective, JAV!", pageable);
+
+        // Then
+        assertEquals(List.of(second, first), actual);
+    }
+
+    @Test
+    @DisplayName("Search full text with a query without words")
+    public void searchFullText_QueryWithoutWords_ReturnsEmptyList() {
+        // When
+        List<BookDto> actual = bookService.searchFullText(" +-*\"() ", PageRequest.of(0, 10));
+
+        // Then
+        assertTrue(actual.isEmpty());
+        verify(bookRepository, times(0)).findIdsByFullTextQuery(any(), any());
+    }
+
+    // Test cases for findAllSummaries method
+    @Test
+    @DisplayName("Find all summaries with valid search parameters and pageable")
+    public void findAllSummaries_ValidSearchParametersAndPageable_ReturnsBookSummaryDtos() {
+        // Given
+        int expected = 2;
+        BookSearchParameters searchParameters = mock(BookSearchParameters.class);
+        Pageable pageable = mock(Pageable.class);
+        Specification<Book> bookSpecification = mock(Specification.class);
+        Page<BookSummaryDto> page = mock(Page.class);
+        BookSummaryDto[] books = {mock(BookSummaryDto.class), mock(BookSummaryDto.class)};
+        when(bookSpecificationBuilder.build(searchParameters)).thenReturn(bookSpecification);
+        when(bookRepository.findAllBookSummaries(bookSpecification, pageable)).thenReturn(page);
+        when(page.stream()).thenReturn(Arrays.stream(books));
+
+        // When
+        List<BookSummaryDto> actual = bookService.findAllSummaries(searchParameters, pageable);
+
+        // Then
+        assertEquals(expected, actual.size());
+        verify(bookMapper, times(0)).toDto(any(Book.class));
+    }
+
     // Test cases for updateById method
     @Test
     @DisplayName("Update by id with valid id and valid requestDto")
@@ -276,6 +349,23 @@ class BookServiceImplTest {
                 () -> bookService.updateById(anyLong(), requestDto));
     }
 
+    @Test
+    @DisplayName("Update by id recomputes the totals of the carts that contain the book")
+    public void updateById_BookInCarts_CartTotalsUpdated() {
+        // Given
+        Long id = 1L;
+        CreateBookRequestDto requestDto = mock(CreateBookRequestDto.class);
+        Book book = mock(Book.class);
+        when(bookRepository.existsById(id)).thenReturn(true);
+        when(bookMapper.toModel(requestDto)).thenReturn(book);
+        when(bookRepository.save(book)).thenReturn(book);
+        when(shoppingCartRepository.findIdsByBookId(id)).thenReturn(List.of(2L, 3L));
+        // When
+        bookService.updateById(id, requestDto);
+        // Then
+        verify(shoppingCartRepository).updateTotalsByIdIn(List.of(2L, 3L));
+    }
+
     // Test cases for deleteById method
     @Test
     @DisplayName("Delete by id with valid id")
@@ -288,6 +378,22 @@ class BookServiceImplTest {
         bookService.deleteById(id);
         // Then
         verify(bookRepository, times(1)).deleteById(id);
+        verify(shoppingCartRepository, never()).updateTotalsByIdIn(anyList());
+    }
+
+    @Test
+    @DisplayName("Delete by id recomputes the totals of the carts that contain the book")
+    public void deleteById_BookInCarts_CartTotalsUpdated() {
+        // Given
+        Long id = 1L;
+        when(bookRepository.existsById(id)).thenReturn(true);
+        when(shoppingCartRepository.findIdsByBookId(id)).thenReturn(List.of(2L));
+        // When
+        bookService.deleteById(id);
+        // Then
+        InOrder inOrder = inOrder(bookRepository, shoppingCartRepository);
+        inOrder.verify(bookRepository).deleteById(id);
+        inOrder.verify(shoppingCartRepository).updateTotalsByIdIn(List.of(2L));
     }
 
     @Test
@@ -358,4 +464,81 @@ class BookServiceImplTest {
         // Then
         assertEquals(expected, actual.getMessage());
     }
-}
\ No newline at end of file
+
+    // Test cases for scroll methods
+    @Test
+    @DisplayName("Scroll first slice when more books are available")
+    public void scroll_MoreBooksAvailable_ReturnsNextCursor() {
+        // Given
+        BookDto first = new BookDto(1L, "Title 1", "Author 1", "978-0-00-000000-1",
+                BigDecimal.TEN, "Description", "https://coverimage1.jpg", Set.of());
+        BookDto second = new BookDto(2L, "Title 2", "Author 2", "978-0-00-000000-2",
+                BigDecimal.ONE, "Description", "https://coverimage2.jpg", Set.of());
+        Sort sort = Sort.by(Sort.Direction.DESC, "price");
+        BookCursor cursor = BookCursor.first(sort);
+        when(bookRepository.findBookDtoSlice(any(Specification.class), eq(cursor), eq(2)))
+                .thenReturn(new SliceImpl<>(List.of(first, second), PageRequest.of(0, 2), true));
+        String expected = new BookCursor("price", Sort.Direction.DESC, BigDecimal.ONE, 2L)
+                .encode();
+
+        // When
+        BookSliceDto<BookDto> actual = bookService.scroll(null, 2, sort);
+
+        // Then
+        assertEquals(List.of(first, second), actual.content());
+        assertEquals(expected, actual.nextCursor());
+        assertTrue(actual.hasNext());
+        assertEquals(cursor.after(second), BookCursor.decode(actual.nextCursor()));
+    }
+
+    @Test
+    @DisplayName("Scroll by category id on the last slice")
+    public void scrollByCategoryId_LastSlice_NextCursorIsNull() {
+        // Given
+        Long categoryId = 1L;
+        BookCursor cursor = new BookCursor("id", Sort.Direction.ASC, 5L, 5L);
+        BookWithoutCategoryIdsDto book = new BookWithoutCategoryIdsDto(6L, "Title 6",
+                "Author 6", "978-0-00-000000-6", BigDecimal.TEN, "Description",
+                "https://coverimage6.jpg");
+        when(bookRepository.findBookSliceByCategoryId(categoryId, cursor, 20))
+                .thenReturn(new SliceImpl<>(List.of(book), PageRequest.of(0, 20), false));
+
+        // When
+        BookSliceDto<BookWithoutCategoryIdsDto> actual = bookService.scrollByCategoryId(
+                categoryId, cursor.encode(), 20, Sort.unsorted());
+
+        // Then
+        assertEquals(List.of(book), actual.content());
+        assertNull(actual.nextCursor());
+        assertFalse(actual.hasNext());
+    }
+
+    @Test
+    @DisplayName("Scroll with malformed cursor")
+    public void scroll_MalformedCursor_ThrowsInvalidCursorException() {
+        // Given
+        String cursor = "not a cursor";
+        String expected = "Invalid cursor: " + cursor;
+
+        // When
+        Exception actual = assertThrows(InvalidCursorException.class,
+                () -> bookService.scroll(cursor, 20, Sort.unsorted()));
+
+        // Then
+        assertEquals(expected, actual.getMessage());
+    }
+
+    @Test
+    @DisplayName("Scroll sorted by unsupported property")
+    public void scroll_UnsupportedSortProperty_ThrowsInvalidCursorException() {
+        // Given
+        String expected = "Unsupported sort property: description";
+
+        // When
+        Exception actual = assertThrows(InvalidCursorException.class,
+                () -> bookService.scroll(null, 20, Sort.by("description")));
+
+        // Then
+        assertEquals(expected, actual.getMessage());
+    }
+}
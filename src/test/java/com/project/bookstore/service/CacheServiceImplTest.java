@@ -0,0 +1,60 @@
+package com.project.bookstore.service;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import com.project.bookstore.dto.cache.CacheStatsDto;
+import com.project.bookstore.service.cache.CacheServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheServiceImplTest {
+    private CaffeineCacheManager cacheManager;
+    private CacheServiceImpl cacheService;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache("principals", Caffeine.newBuilder()
+                .maximumSize(10)
+                .recordStats()
+                .build());
+        cacheService = new CacheServiceImpl(cacheManager);
+    }
+
+    @Test
+    @DisplayName("Get stats with recorded hits and misses")
+    public void getStats_HitsAndMissesRecorded_CountersReturned() {
+        // Given
+        Cache principals = cacheManager.getCache("principals");
+        principals.get("user@example.com", () -> "user");
+        principals.get("user@example.com", () -> "user");
+        principals.get("user@example.com", () -> "user");
+        CacheStatsDto expected = new CacheStatsDto(
+                "principals", 1, 2, 1, 2.0 / 3, 0);
+
+        // When
+        List<CacheStatsDto> actual = cacheService.getStats();
+
+        // Then
+        assertEquals(List.of(expected), actual);
+    }
+
+    @Test
+    @DisplayName("Get stats with empty cache manager")
+    public void getStats_NoCaches_EmptyListReturned() {
+        // Given
+        CacheServiceImpl emptyCacheService = new CacheServiceImpl(new CaffeineCacheManager());
+
+        // When
+        List<CacheStatsDto> actual = emptyCacheService.getStats();
+
+        // Then
+        assertTrue(actual.isEmpty());
+    }
+}
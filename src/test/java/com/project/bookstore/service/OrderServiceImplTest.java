@@ -1,18 +1,27 @@
 package com.project.bookstore.service;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.project.bookstore.dto.order.CreateOrderRequestDto;
 import com.project.bookstore.dto.order.OrderDto;
 import com.project.bookstore.dto.order.OrderWithoutItemsDto;
@@ -22,13 +31,14 @@ import com.project.bookstore.exception.AuthorizationException;
 import com.project.bookstore.exception.EntityNotFoundException;
 import com.project.bookstore.mapper.OrderItemMapper;
 import com.project.bookstore.mapper.OrderMapper;
-import com.project.bookstore.mapper.ShoppingCartMapper;
 import com.project.bookstore.model.Order;
+import com.project.bookstore.model.OrderIdempotencyKey;
 import com.project.bookstore.model.OrderItem;
 import com.project.bookstore.model.ShoppingCart;
 import com.project.bookstore.model.User;
 import com.project.bookstore.repository.order.OrderRepository;
 import com.project.bookstore.repository.order.item.OrderItemRepository;
+import com.project.bookstore.repository.order.key.OrderIdempotencyKeyRepository;
 import com.project.bookstore.repository.shopping.cart.ShoppingCartRepository;
 import com.project.bookstore.service.order.OrderServiceImpl;
 import com.project.bookstore.service.shopping.cart.ShoppingCartServiceImpl;
@@ -38,7 +48,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,8 +62,6 @@ class OrderServiceImplTest {
     @Mock
     private ShoppingCartServiceImpl shoppingCartService;
     @Mock
-    private ShoppingCartMapper shoppingCartMapper;
-    @Mock
     private OrderRepository orderRepository;
     @Mock
     private OrderItemRepository orderItemRepository;
@@ -57,68 +69,95 @@ class OrderServiceImplTest {
     private OrderItemMapper orderItemMapper;
     @Mock
     private OrderMapper orderMapper;
+    @Mock
+    private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
     @InjectMocks
     private OrderServiceImpl orderServiceImpl;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderServiceImpl, "idempotencyKeyTtl", Duration.ofHours(24));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation
+                        .<TransactionCallback<?>>getArgument(0)
+                        .doInTransaction(null));
+    }
+
     //Save
     @Test
     @DisplayName("Save with valid username and request dto")
     void save_ValidUsernameAndRequestDto_ReturnsOrderDto() {
         // Given
-        String username = "user@example.com";
-        CreateOrderRequestDto requestDto = mock(CreateOrderRequestDto.class);
+        User user = createUser(1L, "user@example.com");
+        CreateOrderRequestDto requestDto = new CreateOrderRequestDto("address");
         ShoppingCart shoppingCart = mock(ShoppingCart.class);
-        Order order = mock(Order.class);
+        OrderItem firstItem = new OrderItem();
+        firstItem.setPrice(new BigDecimal("199.90"));
+        OrderItem secondItem = new OrderItem();
+        secondItem.setPrice(new BigDecimal("599.80"));
         OrderDto expected = mock(OrderDto.class);
-        when(shoppingCartRepository.findWithCartItemsByUserEmail(username))
+        when(shoppingCartRepository.findByUserId(1L))
                 .thenReturn(Optional.of(shoppingCart));
-        when(shoppingCartMapper.toOrder(shoppingCart))
-                .thenReturn(order);
-        when(orderRepository.save(order))
-                .thenReturn(order);
-        when(orderMapper.toDto(order))
+        when(shoppingCart.getId()).thenReturn(1L);
+        when(orderRepository.save(any(Order.class)))
+                .thenAnswer(invocation -> {
+                    Order order = invocation.getArgument(0);
+                    order.setId(2L);
+                    return order;
+                });
+        when(orderItemRepository.findAllByOrderId(2L))
+                .thenReturn(List.of(firstItem, secondItem));
+        when(orderItemRepository.sumPriceByOrderId(2L))
+                .thenReturn(new BigDecimal("799.70"));
+        ArgumentCaptor<Order> captor = ArgumentCaptor.forClass(Order.class);
+        when(orderMapper.toDto(captor.capture()))
                 .thenReturn(expected);
 
         // When
-        OrderDto actual = orderServiceImpl.save(username, requestDto);
+        OrderDto actual = orderServiceImpl.save(user, requestDto, null);
 
         // Then
         assertEquals(expected, actual);
+        assertEquals(new BigDecimal("799.70"), captor.getValue().getTotal());
+        assertEquals(Order.Status.NEW, captor.getValue().getStatus());
+        assertEquals("address", captor.getValue().getShippingAddress());
+        verify(orderItemRepository).insertAllFromShoppingCart(2L, 1L);
+        verify(shoppingCartService).clearShoppingCart(shoppingCart);
     }
 
     @Test
     @DisplayName("Save with invalid username and valid request dto")
-    void save_InvalidUsername_ThrowsNullPointerException() {
+    void save_InvalidUsername_ThrowsEntityNotFoundException() {
         // Given
         CreateOrderRequestDto requestDto
                 = mock(CreateOrderRequestDto.class);
-        String expected = "Cannot invoke \"com.project."
-                + "bookstore.model.Order.setShippingAddress"
-                + "(String)\" because \"newOrder\" is null";
-        when(shoppingCartRepository.findWithCartItemsByUserEmail(anyString()))
+        String expected = "Can't find shopping cart by username: invalid@example.com";
+        when(shoppingCartRepository.findByUserId(anyLong()))
                 .thenReturn(Optional.empty());
 
         // When
-        Exception actual = assertThrows(NullPointerException.class, () -> {
-            orderServiceImpl.save(anyString(), requestDto);});
+        Exception actual = assertThrows(EntityNotFoundException.class, () -> {
+            orderServiceImpl.save(createUser(3L, "invalid@example.com"), requestDto, null);});
 
         // Then
         assertEquals(expected, actual.getMessage());
+        verify(shoppingCartService).beginCheckout("invalid@example.com");
+        verify(shoppingCartService).endCheckout("invalid@example.com");
     }
 
     @Test
     @DisplayName("Save with null username and valid request dto")
-    void save_NullUsername_ThrowsNullPointerException() {
+    void save_NullUsername_ThrowsEntityNotFoundException() {
         // Given
-        String username = null;
+        User user = createUser(null, null);
         CreateOrderRequestDto requestDto = mock(CreateOrderRequestDto.class);
-        String expected = "Cannot invoke \"com.project."
-                + "bookstore.model.Order.setShippingAddress"
-                + "(String)\" because \"newOrder\" is null";
+        String expected = "Can't find shopping cart by username: null";
 
         // When
-        Exception actual = assertThrows(NullPointerException.class, () ->
-            orderServiceImpl.save(username, requestDto));
+        Exception actual = assertThrows(EntityNotFoundException.class, () ->
+            orderServiceImpl.save(user, requestDto, null));
 
         // Then
         assertEquals(expected, actual.getMessage());
@@ -133,15 +172,132 @@ class OrderServiceImplTest {
                 + "bookstore.dto.order.CreateOrderRequestDto."
                 + "shippingAddress()\" because \"requestDto\" "
                 + "is null";
+        when(shoppingCartRepository.findByUserId(anyLong()))
+                .thenReturn(Optional.of(mock(ShoppingCart.class)));
 
         // When
         Exception actual = assertThrows(NullPointerException.class, () ->
-            orderServiceImpl.save(anyString(), requestDto));
+            orderServiceImpl.save(createUser(1L, "user@example.com"), requestDto, null));
 
         // Then
         assertEquals(expected, actual.getMessage());
     }
 
+    @Test
+    @DisplayName("Save with a new idempotency key stores the key with the order")
+    void save_NewIdempotencyKey_StoresKeyWithOrder() {
+        // Given
+        String username = "user@example.com";
+        User user = createUser(1L, username);
+        ShoppingCart shoppingCart = new ShoppingCart(user);
+        shoppingCart.setId(1L);
+        OrderDto expected = mock(OrderDto.class);
+        when(orderIdempotencyKeyRepository.findByUserEmailAndIdempotencyKey(username, "key"))
+                .thenReturn(Optional.empty());
+        when(shoppingCartRepository.findByUserId(1L))
+                .thenReturn(Optional.of(shoppingCart));
+        ArgumentCaptor<OrderIdempotencyKey> captor =
+                ArgumentCaptor.forClass(OrderIdempotencyKey.class);
+        when(orderIdempotencyKeyRepository.saveAndFlush(captor.capture()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.save(any(Order.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toDto(any(Order.class))).thenReturn(expected);
+
+        // When
+        OrderDto actual = orderServiceImpl.save(
+                user, new CreateOrderRequestDto("address"), "key");
+
+        // Then
+        assertEquals(expected, actual);
+        assertEquals("key", captor.getValue().getIdempotencyKey());
+        assertEquals(user, captor.getValue().getUser());
+        assertEquals("address", captor.getValue().getOrder().getShippingAddress());
+    }
+
+    @Test
+    @DisplayName("Save with a known idempotency key returns the original order")
+    void save_KnownIdempotencyKey_ReturnsOriginalOrder() {
+        // Given
+        String username = "user@example.com";
+        Order order = new Order();
+        order.setId(2L);
+        OrderIdempotencyKey storedKey = new OrderIdempotencyKey();
+        storedKey.setOrder(order);
+        storedKey.setCreatedAt(LocalDateTime.now().minusHours(1));
+        OrderDto expected = mock(OrderDto.class);
+        when(orderIdempotencyKeyRepository.findByUserEmailAndIdempotencyKey(username, "key"))
+                .thenReturn(Optional.of(storedKey));
+        when(orderRepository.findWithItemsAndUserById(2L)).thenReturn(Optional.of(order));
+        when(orderMapper.toDto(order)).thenReturn(expected);
+
+        // When
+        OrderDto actual = orderServiceImpl.save(
+                createUser(1L, username), new CreateOrderRequestDto("address"), "key");
+
+        // Then
+        assertEquals(expected, actual);
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(shoppingCartService, never()).clearShoppingCart(any());
+    }
+
+    @Test
+    @DisplayName("Save with an expired idempotency key checks out the cart again")
+    void save_ExpiredIdempotencyKey_DeletesKeyAndCreatesOrder() {
+        // Given
+        String username = "user@example.com";
+        OrderIdempotencyKey storedKey = new OrderIdempotencyKey();
+        storedKey.setCreatedAt(LocalDateTime.now().minusDays(2));
+        ShoppingCart shoppingCart = new ShoppingCart(new User());
+        when(orderIdempotencyKeyRepository.findByUserEmailAndIdempotencyKey(username, "key"))
+                .thenReturn(Optional.of(storedKey));
+        when(shoppingCartRepository.findByUserId(1L))
+                .thenReturn(Optional.of(shoppingCart));
+        when(orderIdempotencyKeyRepository.saveAndFlush(any(OrderIdempotencyKey.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.save(any(Order.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        orderServiceImpl.save(
+                createUser(1L, username), new CreateOrderRequestDto("address"), "key");
+
+        // Then
+        verify(orderIdempotencyKeyRepository).delete(storedKey);
+        verify(orderRepository).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Save with a key claimed by a concurrent request returns its order")
+    void save_ConcurrentDuplicateIdempotencyKey_ReturnsWinnerOrder() {
+        // Given
+        String username = "user@example.com";
+        Order order = new Order();
+        order.setId(2L);
+        OrderIdempotencyKey storedKey = new OrderIdempotencyKey();
+        storedKey.setOrder(order);
+        storedKey.setCreatedAt(LocalDateTime.now());
+        OrderDto expected = mock(OrderDto.class);
+        when(orderIdempotencyKeyRepository.findByUserEmailAndIdempotencyKey(username, "key"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(storedKey));
+        when(shoppingCartRepository.findByUserId(1L))
+                .thenReturn(Optional.of(new ShoppingCart(new User())));
+        when(orderIdempotencyKeyRepository.saveAndFlush(any(OrderIdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        when(orderRepository.findWithItemsAndUserById(2L)).thenReturn(Optional.of(order));
+        when(orderMapper.toDto(order)).thenReturn(expected);
+
+        // When
+        OrderDto actual = orderServiceImpl.save(
+                createUser(1L, username), new CreateOrderRequestDto("address"), "key");
+
+        // Then
+        assertEquals(expected, actual);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
     //Find all
     @Test
     @DisplayName("Find all with valid username and valid pageable")
@@ -440,16 +596,9 @@ class OrderServiceImplTest {
         // Given
         Long id = 1L;
         String username = "user@example.com";
-        Order order = mock(Order.class);
-        User user = mock(User.class);
-        OrderItem orderItem = mock(OrderItem.class);
-        OrderItemDto expected = mock(OrderItemDto.class);
-        when(order.getUser()).thenReturn(user);
-        when(user.getEmail()).thenReturn(username);
-        when(order.getOrderItems()).thenReturn(Set.of(orderItem));
-        when(orderRepository.findWithItemsAndUserById(anyLong())).thenReturn(Optional.of(order));
-        when(orderItemMapper.toDto(orderItem)).thenReturn(expected);
-        when(expected.id()).thenReturn(id);
+        OrderItemDto expected = new OrderItemDto(id, 2L, 3);
+        when(orderItemRepository.findDtoByIdAndOrderIdAndUserEmail(id, id, username))
+                .thenReturn(Optional.of(expected));
 
         // When
         OrderItemDto actual = orderServiceImpl.findOrderItemById(id, id, username);
@@ -465,7 +614,7 @@ class OrderServiceImplTest {
         // Given
         Long id = 1L;
         String username = "user@example.com";
-        when(orderRepository.findWithItemsAndUserById(id)).thenReturn(Optional.empty());
+        when(orderRepository.findUserEmailById(id)).thenReturn(Optional.empty());
         String expected = "Can't find order by id: 1";
 
         // When
@@ -501,12 +650,9 @@ class OrderServiceImplTest {
         // Given
         Long id = 1L;
         String username = "user@example.com";
-        Order order = mock(Order.class);
-        User user = mock(User.class);
-        when(orderRepository.findWithItemsAndUserById(id)).thenReturn(Optional.of(order));
-        when(order.getUser()).thenReturn(user);
-        when(user.getEmail()).thenReturn(username);
-        when(order.getOrderItems()).thenReturn(Set.of());
+        when(orderItemRepository.findDtoByIdAndOrderIdAndUserEmail(id, id, username))
+                .thenReturn(Optional.empty());
+        when(orderRepository.findUserEmailById(id)).thenReturn(Optional.of(username));
         String expected = "Invalid orderItem id: 1";
 
         // When
@@ -542,11 +688,7 @@ class OrderServiceImplTest {
         // Given
         Long id = 1L;
         String invalidUsername = "invalid@example.com";
-        Order order = mock(Order.class);
-        User user = mock(User.class);
-        when(orderRepository.findWithItemsAndUserById(id)).thenReturn(Optional.of(order));
-        when(order.getUser()).thenReturn(user);
-        when(user.getEmail()).thenReturn("valid@example.com");
+        when(orderRepository.findUserEmailById(id)).thenReturn(Optional.of("valid@example.com"));
         String expected = "Access denied. You cannot view another user's orders.";
 
         // When
@@ -572,4 +714,11 @@ class OrderServiceImplTest {
         // Then
         assertEquals(expected, actual.getMessage());
     }
-}
\ No newline at end of file
+
+    private User createUser(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -1,37 +1,47 @@
 package com.project.bookstore.service;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.project.bookstore.dto.shopping.cart.ShoppingCartDto;
 import com.project.bookstore.dto.shopping.item.CartItemWithoutBookTitleDto;
 import com.project.bookstore.dto.shopping.item.CreateCartItemRequestDto;
 import com.project.bookstore.dto.shopping.item.UpdateCartItemRequestDto;
 import com.project.bookstore.exception.AuthorizationException;
 import com.project.bookstore.exception.EntityNotFoundException;
-import com.project.bookstore.mapper.CartItemMapper;
 import com.project.bookstore.mapper.ShoppingCartMapper;
 import com.project.bookstore.model.CartItem;
 import com.project.bookstore.model.ShoppingCart;
 import com.project.bookstore.model.User;
 import com.project.bookstore.repository.shopping.cart.ShoppingCartRepository;
 import com.project.bookstore.repository.shopping.item.CartItemRepository;
-import com.project.bookstore.repository.user.UserRepository;
 import com.project.bookstore.service.shopping.cart.ShoppingCartServiceImpl;
+import com.project.bookstore.service.shopping.cart.WriteBehindCartStore;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyLong;
-import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -42,43 +52,56 @@ class ShoppingCartServiceImplTest {
     @Mock
     private ShoppingCartMapper shoppingCartMapper;
     @Mock
-    private CartItemMapper cartItemMapper;
-    @Mock
     private CartItemRepository cartItemRepository;
     @Mock
-    private UserRepository userRepository;
+    private WriteBehindCartStore cartStore;
+    @Mock
+    private TransactionTemplate transactionTemplate;
     @InjectMocks
     private ShoppingCartServiceImpl shoppingCartService;
 
-    // Find cart by username
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation
+                        .<TransactionCallback<?>>getArgument(0)
+                        .doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    // Find cart by user
     @Test
-    @DisplayName("Find cart by username with existing user")
-    public void findCartByUserName_UserExists_ShoppingCartDtoReturned() {
+    @DisplayName("Find cart by user id of the principal with existing user")
+    public void findCartByUser_UserExists_ShoppingCartDtoReturned() {
         // Given
-        String username = "existingUser@example.com";
+        User user = createUser(1L, "existingUser@example.com");
         ShoppingCart existingCart = mock(ShoppingCart.class);
         ShoppingCartDto expected = mock(ShoppingCartDto.class);
-        when(shoppingCartRepository.findWithCartItemsByUserEmail(username))
+        when(shoppingCartRepository.findWithCartItemsByUserId(1L))
                 .thenReturn(Optional.of(existingCart));
         when(shoppingCartMapper.toDto(existingCart)).thenReturn(expected);
 
         // When
-        ShoppingCartDto actual = shoppingCartService.findCartByUserName(username);
+        ShoppingCartDto actual = shoppingCartService.findCartByUser(user);
 
         // Then
         assertEquals(expected, actual);
+        verify(cartStore).flush("existingUser@example.com");
     }
 
     @Test
-    @DisplayName("Find cart by username with non-existing user")
-    public void findCartByUserName_UserDoesNotExist_ThrowsEntityNotFoundException() {
+    @DisplayName("Find cart by user without a shopping cart")
+    public void findCartByUser_CartDoesNotExist_ThrowsEntityNotFoundException() {
         // Given
-        String username = "newUser@example.com";
-        String expected = "Can't find user by username: newUser@example.com";
+        User user = createUser(2L, "newUser@example.com");
+        String expected = "Can't find shopping cart by username: newUser@example.com";
 
         // When
         Exception actual = assertThrows(EntityNotFoundException.class,
-                () ->shoppingCartService.findCartByUserName(username));
+                () ->shoppingCartService.findCartByUser(user));
 
         // Then
         assertEquals(expected, actual.getMessage());
@@ -86,60 +109,99 @@ class ShoppingCartServiceImplTest {
 
     // Post item
     @Test
-    @DisplayName("Post item by username with existing user and valid request dto")
+    @DisplayName("Post item by user with existing user and valid request dto")
     public void postItem_UserExistsAndValidRequest_CartItemWithoutBookTitleDtoReturned() {
         // Given
-        CreateCartItemRequestDto requestDto = mock(CreateCartItemRequestDto.class);
-        ShoppingCart existingCart = mock(ShoppingCart.class);
-        CartItem newItem = mock(CartItem.class);
-        CartItemWithoutBookTitleDto expected = mock(CartItemWithoutBookTitleDto.class);
-        when(shoppingCartRepository.findByUserEmail(anyString()))
-                .thenReturn(Optional.of(existingCart));
-        when(cartItemMapper.toModel(requestDto)).thenReturn(newItem);
-        when(cartItemRepository.save(newItem)).thenReturn(newItem);
-        when(cartItemMapper.toCartItemWithoutBookTitleDto(newItem))
-                .thenReturn(expected);
+        User user = createUser(1L, "user@example.com");
+        CreateCartItemRequestDto requestDto = new CreateCartItemRequestDto(2L, 3);
+        CartItemWithoutBookTitleDto expected = new CartItemWithoutBookTitleDto(4L, 2L, 5);
+        when(shoppingCartRepository.findIdByUserId(1L)).thenReturn(Optional.of(1L));
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartIdAndBookIdIn(
+                1L, List.of(2L)))
+                .thenReturn(List.of(expected));
+
+        // When
+        CartItemWithoutBookTitleDto actual = shoppingCartService.postItem(user, requestDto);
+
+        // Then
+        assertEquals(expected, actual);
+        verify(cartItemRepository).upsertAll(1L, List.of(requestDto));
+        verify(shoppingCartRepository).updateTotalsByIdIn(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Post items merges repeated books into one item per book")
+    public void postItems_RepeatedBooks_OneItemPerBookReturnedInRequestOrder() {
+        // Given
+        User user = createUser(1L, "user@example.com");
+        List<CreateCartItemRequestDto> requestDtos = List.of(
+                new CreateCartItemRequestDto(3L, 1),
+                new CreateCartItemRequestDto(2L, 1),
+                new CreateCartItemRequestDto(3L, 2));
+        CartItemWithoutBookTitleDto firstItem = new CartItemWithoutBookTitleDto(5L, 3L, 3);
+        CartItemWithoutBookTitleDto secondItem = new CartItemWithoutBookTitleDto(4L, 2L, 1);
+        when(shoppingCartRepository.findIdByUserId(1L)).thenReturn(Optional.of(1L));
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartIdAndBookIdIn(
+                1L, List.of(3L, 2L)))
+                .thenReturn(List.of(secondItem, firstItem));
+
+        // When
+        List<CartItemWithoutBookTitleDto> actual = shoppingCartService
+                .postItems(user, requestDtos);
+
+        // Then
+        assertEquals(List.of(firstItem, secondItem), actual);
+        verify(cartItemRepository).upsertAll(1L, requestDtos);
+    }
+
+    @Test
+    @DisplayName("Post items with write-behind store enabled adds them to the cached cart")
+    public void postItems_WriteBehindEnabled_ItemsAddedToCartStore() {
+        // Given
+        User user = createUser(1L, "user@example.com");
+        List<CreateCartItemRequestDto> requestDtos = List.of(new CreateCartItemRequestDto(2L, 1));
+        List<CartItemWithoutBookTitleDto> expected = List.of(
+                new CartItemWithoutBookTitleDto(4L, 2L, 3));
+        when(cartStore.isEnabled()).thenReturn(true);
+        when(cartStore.addItems(eq("user@example.com"), any(), eq(requestDtos))).thenReturn(expected);
 
         // When
-        CartItemWithoutBookTitleDto actual = shoppingCartService
-                .postItem(anyString(), requestDto);
+        List<CartItemWithoutBookTitleDto> actual = shoppingCartService
+                .postItems(user, requestDtos);
 
         // Then
         assertEquals(expected, actual);
+        verify(cartItemRepository, never()).upsertAll(anyLong(), any());
+        verify(shoppingCartRepository, never()).findIdByUserId(anyLong());
     }
 
     @Test
-    @DisplayName("Post item by username with non-existing user and valid request dto")
-    public void postItem_UserDoesNotExist_ThrowsEntityNotFoundException() {
+    @DisplayName("Post item by user without a shopping cart and valid request dto")
+    public void postItem_CartDoesNotExist_ThrowsEntityNotFoundException() {
         // Given
-        String username = "newUser@example.com";
-        String expected = "Can't find user by username: newUser@example.com";
+        User user = createUser(2L, "newUser@example.com");
+        String expected = "Can't find shopping cart by username: newUser@example.com";
 
         // When
         Exception actual = assertThrows(EntityNotFoundException.class,
-                () ->shoppingCartService.postItem(username, mock(CreateCartItemRequestDto.class)));
+                () ->shoppingCartService.postItem(user, mock(CreateCartItemRequestDto.class)));
 
         // Then
         assertEquals(expected, actual.getMessage());
     }
 
     @Test
-    @DisplayName("Post item by username with existing user and null request dto")
+    @DisplayName("Post item by user with existing user and null request dto")
     public void postItem_NullRequestDto_ThrowsNullPointerException() {
         // Given
         CreateCartItemRequestDto requestDto = null;
-        String expected = "Cannot invoke \"com.project.bookstore."
-                + "model.CartItem.setShoppingCart(com.project."
-                + "bookstore.model.ShoppingCart)\" because \""
-                + "newItem\" is null";
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(mock(User.class)));
 
         // When
-        Exception actual = assertThrows(NullPointerException.class,
-                () ->shoppingCartService.postItem(anyString(), requestDto));
+        assertThrows(NullPointerException.class,
+                () ->shoppingCartService.postItem(createUser(1L, "user@example.com"), requestDto));
 
         // Then
-        assertEquals(expected, actual.getMessage());
+        verify(cartItemRepository, never()).upsertAll(anyLong(), any());
     }
 
     // Update item
@@ -147,80 +209,90 @@ class ShoppingCartServiceImplTest {
     @DisplayName("Update item with existing cart item and authorized user")
     public void updateItem_CartItemExistsAndUserAuthorized_CartItemUpdated() {
         // Given
-        String username = "authorizedUser@example.com";
+        User user = createUser(1L, "authorizedUser@example.com");
         Long id = 1L;
         int quantity = 10;
-        UpdateCartItemRequestDto requestDto
-                = mock(UpdateCartItemRequestDto.class);
-        CartItem cartItem = mock(CartItem.class);
-        ShoppingCart shoppingCart = mock(ShoppingCart.class);
-        CartItemWithoutBookTitleDto expected
-                = mock(CartItemWithoutBookTitleDto.class);
-        when(cartItemRepository.findById(anyLong()))
-                .thenReturn(Optional.of(cartItem));
-        when(shoppingCartRepository.findByUserEmail(username))
-                .thenReturn(Optional.of(shoppingCart));
-        when(cartItem.getShoppingCart()).thenReturn(shoppingCart);
-        when(shoppingCart.getId()).thenReturn(id);
-        when(requestDto.quantity()).thenReturn(quantity);
-        when(cartItemRepository.save(cartItem)).thenReturn(cartItem);
-        when(cartItemMapper.toCartItemWithoutBookTitleDto(cartItem))
-                .thenReturn(expected);
+        UpdateCartItemRequestDto requestDto = new UpdateCartItemRequestDto(quantity);
+        CartItemWithoutBookTitleDto expected = new CartItemWithoutBookTitleDto(id, 2L, quantity);
+        when(cartItemRepository.updateQuantityByIdAndUserId(id, 1L, quantity))
+                .thenReturn(1);
+        when(cartItemRepository.findWithoutBookTitleDtoById(id))
+                .thenReturn(Optional.of(expected));
+        when(shoppingCartRepository.findIdByUserId(1L)).thenReturn(Optional.of(1L));
 
         // When
-        CartItemWithoutBookTitleDto actual = shoppingCartService.updateItem(username, id, requestDto);
+        CartItemWithoutBookTitleDto actual = shoppingCartService.updateItem(user, id, requestDto);
 
         // Then
         assertEquals(expected, actual);
+        verify(shoppingCartRepository).updateTotalsByIdIn(List.of(1L));
+        verify(shoppingCartRepository, never()).findByUserId(anyLong());
     }
 
     @Test
     @DisplayName("Update item with non-existing cart item and authorized user")
     public void updateItem_CartItemDoesNotExist_EntityNotFoundExceptionThrown() {
         // Given
-        String username = "user@example.com";
+        User user = createUser(1L, "user@example.com");
         Long id = 2L;
         String expected = "Can't find cart item by id: " + id;
-        when(cartItemRepository.findById(id)).thenReturn(Optional.empty());
+        when(cartItemRepository.updateQuantityByIdAndUserId(id, 1L, 5))
+                .thenReturn(0);
+        when(cartItemRepository.existsById(id)).thenReturn(false);
 
         // When
         EntityNotFoundException actual = assertThrows(
                 EntityNotFoundException.class,
-                () -> shoppingCartService.updateItem(username, id, mock(UpdateCartItemRequestDto.class))
+                () -> shoppingCartService.updateItem(user, id, new UpdateCartItemRequestDto(5))
         );
 
         // Then
         assertEquals(expected, actual.getMessage());
+        verify(shoppingCartRepository, never()).updateTotalsByIdIn(anyList());
     }
 
     @Test
     @DisplayName("Update item with existing cart item and unauthorized user")
     public void updateItem_UserNotAuthorized_AuthorizationExceptionThrown() {
         // Given
-        String username = "unauthorizedUser@example.com";
+        User user = createUser(3L, "unauthorizedUser@example.com");
         Long id = 3L;
         String expected = "Access denied. You can't edit "
                 + "shopping cart of another user.";
-        UpdateCartItemRequestDto requestDto
-                = mock(UpdateCartItemRequestDto.class);
-        CartItem cartItem = mock(CartItem.class);
-        ShoppingCart userShoppingCart = mock(ShoppingCart.class);
-        ShoppingCart cartItemShoppingCart = mock(ShoppingCart.class);
-        when(cartItemRepository.findById(id)).thenReturn(Optional.of(cartItem));
-        when(shoppingCartRepository.findByUserEmail(username))
-                .thenReturn(Optional.of(userShoppingCart));
-        when(cartItem.getShoppingCart()).thenReturn(cartItemShoppingCart);
-        when(cartItemShoppingCart.getId()).thenReturn(4L);
-        when(userShoppingCart.getId()).thenReturn(id);
+        when(cartItemRepository.updateQuantityByIdAndUserId(id, 3L, 5))
+                .thenReturn(0);
+        when(cartItemRepository.existsById(id)).thenReturn(true);
 
         // When
         AuthorizationException actual = assertThrows(
                 AuthorizationException.class,
-                () -> shoppingCartService.updateItem(username, id, requestDto)
+                () -> shoppingCartService.updateItem(user, id, new UpdateCartItemRequestDto(5))
         );
 
         // Then
         assertEquals(expected, actual.getMessage());
+        verify(shoppingCartRepository, never()).updateTotalsByIdIn(anyList());
+    }
+
+    @Test
+    @DisplayName("Update item with write-behind store enabled and item missing from the cart")
+    public void updateItem_WriteBehindEnabledAndItemNotInCart_PendingChangesFlushed() {
+        // Given
+        User user = createUser(1L, "user@example.com");
+        Long id = 2L;
+        when(cartStore.isEnabled()).thenReturn(true);
+        when(cartStore.updateItem(eq("user@example.com"), any(), eq(id), eq(5)))
+                .thenReturn(Optional.empty());
+        when(cartItemRepository.existsById(id)).thenReturn(false);
+
+        // When
+        assertThrows(EntityNotFoundException.class,
+                () -> shoppingCartService.updateItem(user, id, new UpdateCartItemRequestDto(5)));
+
+        // Then
+        verify(cartStore).flush("user@example.com");
+        verify(cartItemRepository, never()).updateQuantityByIdAndUserId(
+                anyLong(), anyLong(), any(Integer.class));
     }
 
     // Delete item
@@ -229,19 +301,17 @@ class ShoppingCartServiceImplTest {
     public void deleteItem_CartItemExistsAndUserAuthorized_CartItemDeleted() {
         // Given
         Long id = 1L;
-        String username = "authorizedUser@example.com";
-        CartItem cartItem = mock(CartItem.class);
-        ShoppingCart shoppingCart = mock(ShoppingCart.class);
-        when(cartItemRepository.findById(id)).thenReturn(Optional.of(cartItem));
-        when(shoppingCartRepository.findByUserEmail(username)).thenReturn(Optional.of(shoppingCart));
-        when(cartItem.getShoppingCart()).thenReturn(shoppingCart);
-        when(shoppingCart.getId()).thenReturn(id);
+        User user = createUser(1L, "authorizedUser@example.com");
+        when(cartItemRepository.deleteByIdAndUserId(id, 1L)).thenReturn(1);
+        when(shoppingCartRepository.findIdByUserId(1L)).thenReturn(Optional.of(1L));
 
         // When
-        shoppingCartService.deleteItem(id, username);
+        shoppingCartService.deleteItem(id, user);
 
         // Then
-        verify(cartItemRepository).deleteById(id);
+        verify(cartItemRepository).deleteByIdAndUserId(id, 1L);
+        verify(shoppingCartRepository).updateTotalsByIdIn(List.of(1L));
+        verify(cartItemRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -249,14 +319,15 @@ class ShoppingCartServiceImplTest {
     public void deleteItem_CartItemDoesNotExist_EntityNotFoundExceptionThrown() {
         // Given
         Long id = 2L;
-        String username = "user@example.com";
-        when(cartItemRepository.findById(id)).thenReturn(Optional.empty());
+        User user = createUser(1L, "user@example.com");
+        when(cartItemRepository.deleteByIdAndUserId(id, 1L)).thenReturn(0);
+        when(cartItemRepository.existsById(id)).thenReturn(false);
         String expected = "Can't find cart item by id: " + id;
 
         // When
         Exception actual = assertThrows(
                 EntityNotFoundException.class,
-                () -> shoppingCartService.deleteItem(id, username)
+                () -> shoppingCartService.deleteItem(id, user)
         );
 
         // Then
@@ -268,22 +339,15 @@ class ShoppingCartServiceImplTest {
     public void deleteItem_UserNotAuthorized_AuthorizationExceptionThrown() {
         // Given
         Long id = 3L;
-        String username = "unauthorizedUser@example.com";
-        CartItem cartItem = mock(CartItem.class);
-        ShoppingCart userShoppingCart = mock(ShoppingCart.class);
-        ShoppingCart cartItemShoppingCart = mock(ShoppingCart.class);
-        when(cartItemRepository.findById(id)).thenReturn(Optional.of(cartItem));
-        when(shoppingCartRepository.findByUserEmail(username))
-                .thenReturn(Optional.of(userShoppingCart));
-        when(cartItem.getShoppingCart()).thenReturn(cartItemShoppingCart);
-        when(cartItemShoppingCart.getId()).thenReturn(4L);
-        when(userShoppingCart.getId()).thenReturn(id);
+        User user = createUser(3L, "unauthorizedUser@example.com");
+        when(cartItemRepository.deleteByIdAndUserId(id, 3L)).thenReturn(0);
+        when(cartItemRepository.existsById(id)).thenReturn(true);
         String expected = "Access denied. You can't edit shopping cart of another user.";
 
         // When
         Exception actual = assertThrows(
                 AuthorizationException.class,
-                () -> shoppingCartService.deleteItem(id, username));
+                () -> shoppingCartService.deleteItem(id, user));
 
         // Then
         assertEquals(expected, actual.getMessage());
@@ -294,20 +358,22 @@ class ShoppingCartServiceImplTest {
     @DisplayName("Clear shopping cart with existing shopping cart")
     public void clearShoppingCart_ShoppingCartExists_AllCartItemsDeleted() {
         // Given
-        ShoppingCart shoppingCart = mock(ShoppingCart.class);
-        Set<CartItem> cartItems = Set.of(mock(CartItem.class), mock(CartItem.class));
-        shoppingCart.setCartItems(cartItems);
-        ShoppingCart expected = mock(ShoppingCart.class);
-        when(shoppingCart.getCartItems()).thenReturn(cartItems);
-        when(shoppingCartRepository.save(any(ShoppingCart.class))).thenReturn(expected);
+        ShoppingCart shoppingCart = new ShoppingCart();
+        shoppingCart.setId(1L);
+        shoppingCart.setCartItems(Set.of(mock(CartItem.class), mock(CartItem.class)));
+        shoppingCart.setTotal(new BigDecimal("39.98"));
+        shoppingCart.setItemCount(2);
 
         // When
         shoppingCartService.clearShoppingCart(shoppingCart);
 
         // Then
-        verify(cartItemRepository, times(cartItems.size())).delete(any(CartItem.class));
-        assertTrue(expected.getCartItems().isEmpty());
-        verify(shoppingCartRepository).save(shoppingCart);
+        verify(cartItemRepository).deleteAllByShoppingCartId(1L);
+        verify(cartItemRepository, never()).delete(any(CartItem.class));
+        verify(shoppingCartRepository).updateTotalsByIdIn(List.of(1L));
+        assertTrue(shoppingCart.getCartItems().isEmpty());
+        assertEquals(BigDecimal.ZERO, shoppingCart.getTotal());
+        assertEquals(0, shoppingCart.getItemCount());
     }
 
     // Create shopping cart
@@ -315,30 +381,23 @@ class ShoppingCartServiceImplTest {
     @DisplayName("Create shopping cart with existing user")
     public void createShoppingCart_UserExists_ShoppingCartCreated() {
         // Given
+        User user = new User();
         ShoppingCart expected = mock(ShoppingCart.class);
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(mock(User.class)));
-        when(shoppingCartRepository.save(any(ShoppingCart.class))).thenReturn(expected);
+        ArgumentCaptor<ShoppingCart> captor = ArgumentCaptor.forClass(ShoppingCart.class);
+        when(shoppingCartRepository.save(captor.capture())).thenReturn(expected);
 
         // When
-        ShoppingCart actual = shoppingCartService.createShoppingCart(anyString());
+        ShoppingCart actual = shoppingCartService.createShoppingCart(user);
 
         // Then
         assertEquals(expected, actual);
+        assertEquals(user, captor.getValue().getUser());
     }
 
-    @Test
-    @DisplayName("Clear shopping cart with non-existing shopping cart")
-    public void createShoppingCart_UserDoesNotExist_EntityNotFoundExceptionThrown() {
-        // Given
-        String username = "nonExistentUser@example.com";
-        when(userRepository.findByEmail(username)).thenReturn(Optional.empty());
-        String expected = "Can't find user by username: " + username;
-
-        // When
-        Exception actual = assertThrows(EntityNotFoundException.class,
-                () -> shoppingCartService.createShoppingCart(username));
-
-        // Then
-        assertEquals(expected, actual.getMessage());
+    private User createUser(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
     }
-}
\ No newline at end of file
+}
@@ -21,6 +21,7 @@ import com.project.bookstore.mapper.UserMapper;
 import com.project.bookstore.model.Role;
 import com.project.bookstore.model.User;
 import com.project.bookstore.repository.user.UserRepository;
+import com.project.bookstore.service.shopping.cart.ShoppingCartService;
 import com.project.bookstore.service.user.UserServiceImpl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -28,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +40,8 @@ class UserServiceImplTest {
     private UserMapper userMapper;
     @Mock
     private PasswordEncoder encoder;
+    @Mock
+    private ShoppingCartService shoppingCartService;
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -63,6 +67,7 @@ class UserServiceImplTest {
 
         // Then
         assertEquals(expected, actual);
+        verify(shoppingCartService).createShoppingCart(newUser);
     }
 
     @Test
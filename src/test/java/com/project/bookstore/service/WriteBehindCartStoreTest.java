@@ -0,0 +1,326 @@
+package com.project.bookstore.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.project.bookstore.dto.shopping.item.CartItemWithoutBookTitleDto;
+import com.project.bookstore.dto.shopping.item.CreateCartItemRequestDto;
+import com.project.bookstore.exception.CheckoutInProgressException;
+import com.project.bookstore.repository.shopping.cart.ShoppingCartRepository;
+import com.project.bookstore.repository.shopping.item.CartItemRepository;
+import com.project.bookstore.service.shopping.cart.WriteBehindCartStore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.anyMap;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindCartStoreTest {
+    private static final String USERNAME = "user@example.com";
+    @Mock
+    private ShoppingCartRepository shoppingCartRepository;
+    @Mock
+    private CartItemRepository cartItemRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @TempDir
+    private Path journalDirectory;
+    private WriteBehindCartStore cartStore;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        cartStore = new WriteBehindCartStore(
+                shoppingCartRepository, cartItemRepository, transactionTemplate);
+        ReflectionTestUtils.setField(cartStore, "enabled", true);
+        ReflectionTestUtils.setField(cartStore, "flushInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(cartStore, "idleTimeout", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(cartStore, "journalDirectory", journalDirectory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartStore.stop();
+    }
+
+    @Test
+    @DisplayName("Changes of cached items are kept in memory until the cart is flushed")
+    public void updateAndDeleteItem_CachedItems_WrittenOnlyOnFlush() {
+        // Given
+        cartStore.start();
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartId(1L))
+                .thenReturn(List.of(
+                        new CartItemWithoutBookTitleDto(10L, 2L, 1),
+                        new CartItemWithoutBookTitleDto(11L, 3L, 1)));
+
+        // When
+        Optional<CartItemWithoutBookTitleDto> actual =
+                cartStore.updateItem(USERNAME, () -> 1L, 10L, 4);
+        boolean deleted = cartStore.deleteItem(USERNAME, () -> 1L, 11L);
+
+        // Then
+        assertEquals(Optional.of(new CartItemWithoutBookTitleDto(10L, 2L, 4)), actual);
+        assertTrue(deleted);
+        verify(cartItemRepository, never()).updateQuantities(anyMap());
+        cartStore.flush(USERNAME);
+        verify(cartItemRepository).updateQuantities(Map.of(10L, 4));
+        verify(cartItemRepository).deleteAllByIdIn(List.of(11L));
+        verify(shoppingCartRepository).updateTotalsByIdIn(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Adding a book that is not in the cart writes pending changes and upserts it")
+    public void addItems_NewBook_PendingChangesWrittenBeforeUpsert() {
+        // Given
+        cartStore.start();
+        List<CreateCartItemRequestDto> items = List.of(new CreateCartItemRequestDto(3L, 2));
+        CartItemWithoutBookTitleDto expected = new CartItemWithoutBookTitleDto(12L, 3L, 2);
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartId(1L))
+                .thenReturn(List.of(new CartItemWithoutBookTitleDto(10L, 2L, 1)));
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartIdAndBookIdIn(
+                1L, List.of(3L)))
+                .thenReturn(List.of(expected));
+        cartStore.addItems(USERNAME, () -> 1L, List.of(new CreateCartItemRequestDto(2L, 1)));
+
+        // When
+        List<CartItemWithoutBookTitleDto> actual = cartStore.addItems(USERNAME, () -> 1L, items);
+
+        // Then
+        assertEquals(List.of(expected), actual);
+        InOrder inOrder = inOrder(cartItemRepository);
+        inOrder.verify(cartItemRepository).updateQuantities(Map.of(10L, 2));
+        inOrder.verify(cartItemRepository).upsertAll(1L, items);
+        verify(shoppingCartRepository, times(2)).updateTotalsByIdIn(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Changes left in the journal by a previous run are written on start")
+    public void start_JournalWithPendingChanges_ChangesReplayed() throws IOException {
+        // Given
+        Files.writeString(journalDirectory.resolve("segment-3.log"),
+                USERNAME + "\t1\t10\t2\tfalse\n"
+                        + USERNAME + "\t1\t10\t5\tfalse\n"
+                        + USERNAME + "\t1\t11\t1\ttrue\n"
+                        + USERNAME + "\t1\t12\t7");
+
+        // When
+        cartStore.start();
+
+        // Then
+        verify(cartItemRepository).updateQuantities(Map.of(10L, 5));
+        verify(cartItemRepository).deleteAllByIdIn(List.of(11L));
+        verify(shoppingCartRepository).updateTotalsByIdIn(List.of(1L));
+        assertFalse(Files.exists(journalDirectory.resolve("segment-3.log")));
+    }
+
+    @Test
+    @DisplayName("Changing an item that is not in the user's cart returns nothing")
+    public void updateItem_ItemNotInCart_EmptyReturned() {
+        // Given
+        cartStore.start();
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartId(1L))
+                .thenReturn(List.of());
+
+        // When
+        Optional<CartItemWithoutBookTitleDto> actual =
+                cartStore.updateItem(USERNAME, () -> 1L, 10L, 4);
+
+        // Then
+        assertTrue(actual.isEmpty());
+        assertFalse(cartStore.deleteItem(USERNAME, () -> 1L, 10L));
+    }
+
+    @Test
+    @DisplayName("Flushing a cart without pending changes does not touch the database")
+    public void flush_NoPendingChanges_NoTransaction() {
+        // Given
+        cartStore.start();
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartId(1L))
+                .thenReturn(List.of(new CartItemWithoutBookTitleDto(10L, 2L, 1)));
+        cartStore.updateItem(USERNAME, () -> 1L, 10L, 4);
+        cartStore.flush(USERNAME);
+        clearInvocations(transactionTemplate);
+
+        // When
+        cartStore.flush(USERNAME);
+        cartStore.flush("other@example.com");
+
+        // Then
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("The cart row is locked before its pending changes are written")
+    public void flush_PendingChanges_CartRowLockedFirst() {
+        // Given
+        cartStore.start();
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartId(1L))
+                .thenReturn(List.of(new CartItemWithoutBookTitleDto(10L, 2L, 1)));
+        cartStore.updateItem(USERNAME, () -> 1L, 10L, 4);
+
+        // When
+        cartStore.flush(USERNAME);
+
+        // Then
+        InOrder inOrder = inOrder(shoppingCartRepository, cartItemRepository);
+        inOrder.verify(shoppingCartRepository).lockAllByIdIn(List.of(1L));
+        inOrder.verify(cartItemRepository).updateQuantities(Map.of(10L, 4));
+        inOrder.verify(shoppingCartRepository).updateTotalsByIdIn(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Changes of a failed write are kept and written by the next flush")
+    public void flush_WriteFailed_ChangesWrittenAgain() {
+        // Given
+        cartStore.start();
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartId(1L))
+                .thenReturn(List.of(new CartItemWithoutBookTitleDto(10L, 2L, 1)));
+        cartStore.updateItem(USERNAME, () -> 1L, 10L, 4);
+        doThrow(new IllegalStateException("Connection lost"))
+                .doNothing()
+                .when(cartItemRepository).updateQuantities(anyMap());
+        assertThrows(IllegalStateException.class, () -> cartStore.flush(USERNAME));
+
+        // When
+        cartStore.flush(USERNAME);
+
+        // Then
+        verify(cartItemRepository, times(2)).updateQuantities(Map.of(10L, 4));
+    }
+
+    @Test
+    @DisplayName("A cart loaded while checkout has not committed is evicted after the commit")
+    public void evict_CartLoadedBeforeCommit_EvictedAfterCommit() {
+        // Given
+        cartStore.start();
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartId(1L))
+                .thenReturn(List.of(new CartItemWithoutBookTitleDto(10L, 2L, 1)))
+                .thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cartStore.evict(USERNAME);
+            Optional<CartItemWithoutBookTitleDto> loadedBeforeCommit =
+                    cartStore.updateItem(USERNAME, () -> 1L, 10L, 4);
+            assertTrue(loadedBeforeCommit.isPresent());
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Optional<CartItemWithoutBookTitleDto> actual =
+                cartStore.updateItem(USERNAME, () -> 1L, 10L, 5);
+
+        // Then
+        assertTrue(actual.isEmpty());
+        verify(cartItemRepository, times(2)).findWithoutBookTitleDtosByShoppingCartId(1L);
+        cartStore.flush(USERNAME);
+        verify(cartItemRepository, never()).updateQuantities(anyMap());
+    }
+
+    @Test
+    @DisplayName("A cart is loaded from the database without holding a lock")
+    public void updateItem_CartNotCached_LoadedWithoutLock() {
+        // Given
+        cartStore.start();
+        Lock[] stripes = (Lock[]) ReflectionTestUtils.getField(cartStore, "stripes");
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartId(1L))
+                .thenAnswer(invocation -> {
+                    for (Lock stripe : stripes) {
+                        assertFalse(((ReentrantLock) stripe).isLocked());
+                    }
+                    return List.of(new CartItemWithoutBookTitleDto(10L, 2L, 1));
+                });
+
+        // When
+        Optional<CartItemWithoutBookTitleDto> actual =
+                cartStore.updateItem(USERNAME, () -> 1L, 10L, 4);
+
+        // Then
+        assertEquals(Optional.of(new CartItemWithoutBookTitleDto(10L, 2L, 4)), actual);
+    }
+
+    @Test
+    @DisplayName("A cart evicted while it was being loaded is loaded again")
+    public void updateItem_CartEvictedDuringLoad_LoadedAgain() {
+        // Given
+        cartStore.start();
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartId(1L))
+                .thenAnswer(invocation -> {
+                    cartStore.evict(USERNAME);
+                    return List.of(new CartItemWithoutBookTitleDto(10L, 2L, 1));
+                })
+                .thenReturn(List.of());
+
+        // When
+        Optional<CartItemWithoutBookTitleDto> actual =
+                cartStore.updateItem(USERNAME, () -> 1L, 10L, 4);
+
+        // Then
+        assertTrue(actual.isEmpty());
+        verify(cartItemRepository, times(2)).findWithoutBookTitleDtosByShoppingCartId(1L);
+    }
+
+    @Test
+    @DisplayName("Pending changes are written when checkout begins and later changes are rejected")
+    public void beginCheckout_PendingChanges_WrittenAndLaterChangesRejected() {
+        // Given
+        cartStore.start();
+        when(cartItemRepository.findWithoutBookTitleDtosByShoppingCartId(1L))
+                .thenReturn(List.of(new CartItemWithoutBookTitleDto(10L, 2L, 1)));
+        cartStore.updateItem(USERNAME, () -> 1L, 10L, 4);
+
+        // When
+        cartStore.beginCheckout(USERNAME);
+
+        // Then
+        verify(cartItemRepository).updateQuantities(Map.of(10L, 4));
+        assertThrows(CheckoutInProgressException.class,
+                () -> cartStore.updateItem(USERNAME, () -> 1L, 10L, 5));
+        assertThrows(CheckoutInProgressException.class,
+                () -> cartStore.addItems(USERNAME, () -> 1L,
+                        List.of(new CreateCartItemRequestDto(2L, 1))));
+        assertThrows(CheckoutInProgressException.class,
+                () -> cartStore.beginCheckout(USERNAME));
+        cartStore.endCheckout(USERNAME);
+        assertEquals(Optional.of(new CartItemWithoutBookTitleDto(10L, 2L, 5)),
+                cartStore.updateItem(USERNAME, () -> 1L, 10L, 5));
+    }
+}
@@ -0,0 +1,9 @@
+CREATE TABLE categories (
+    id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    is_deleted BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+INSERT INTO categories (id, name, description, is_deleted)
+VALUES (1000, 'Replica category', 'Exists only on the replica', false);
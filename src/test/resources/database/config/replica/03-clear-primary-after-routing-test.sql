@@ -0,0 +1,2 @@
+DELETE FROM categories;
+ALTER TABLE categories AUTO_INCREMENT = 1;
@@ -1,2 +1,5 @@
+DELETE FROM shopping_carts;
+ALTER TABLE shopping_carts AUTO_INCREMENT = 1;
+
 DELETE FROM users WHERE id = 1;
 ALTER TABLE users AUTO_INCREMENT = 1;
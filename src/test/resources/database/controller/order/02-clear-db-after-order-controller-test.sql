@@ -7,6 +7,9 @@ ALTER TABLE shopping_carts AUTO_INCREMENT = 1;
 DELETE FROM book_category;
 ALTER TABLE book_category AUTO_INCREMENT = 1;
 
+DELETE FROM order_idempotency_keys;
+ALTER TABLE order_idempotency_keys AUTO_INCREMENT = 1;
+
 DELETE FROM order_items;
 ALTER TABLE order_items AUTO_INCREMENT = 1;
 
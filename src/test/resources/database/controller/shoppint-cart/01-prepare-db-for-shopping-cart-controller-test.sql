@@ -8,7 +8,7 @@ INSERT INTO book_category (book_id, category_id) VALUES
 (1, 1),
 (2, 1);
 
-INSERT INTO shopping_carts (user_id) VALUES (1);
+INSERT INTO shopping_carts (user_id, total, item_count) VALUES (1, 799.70, 30);
 
 INSERT INTO cart_items (shopping_cart_id, book_id, quantity) VALUES (1, 1, 10);
 INSERT INTO cart_items (shopping_cart_id, book_id, quantity) VALUES (1, 2, 20);
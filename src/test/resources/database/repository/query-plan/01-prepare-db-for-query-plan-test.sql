@@ -0,0 +1,44 @@
+INSERT INTO users (email, password, first_name, last_name, shipping_address)
+SELECT CONCAT('user', a.n * 10 + b.n + 1, '@domain.com'), 'password', 'first name', 'last name', 'address'
+FROM (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) a
+CROSS JOIN (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) b;
+
+INSERT INTO shopping_carts (user_id)
+SELECT u.id FROM users u;
+
+INSERT INTO categories (name, description)
+SELECT CONCAT('category ', a.n + 1), 'description'
+FROM (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) a;
+
+INSERT INTO books (title, author, isbn, price, description, cover_image)
+SELECT CONCAT('Book Title ', c.n * 100 + a.n * 10 + b.n + 1), 'Author Name',
+       CONCAT('978-0-00-', c.n * 100 + a.n * 10 + b.n + 1), 19.99, 'Description', 'https://coverimage.jpg'
+FROM (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) a
+CROSS JOIN (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) b
+CROSS JOIN (SELECT 0 n UNION ALL SELECT 1) c;
+
+INSERT INTO book_category (book_id, category_id)
+SELECT b.id, MOD(b.id, 10) + 1 FROM books b;
+
+INSERT INTO orders (user_id, status, order_date, total, shipping_address)
+SELECT u.id, 'NEW', '2024-03-29 15:44:10', 39.98, 'address'
+FROM users u
+CROSS JOIN (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) a;
+
+INSERT INTO order_items (order_id, book_id, quantity, price, is_deleted)
+SELECT o.id, MOD(o.id + a.n * 7, 200) + 1, 1, 19.99, false
+FROM orders o
+CROSS JOIN (SELECT 0 n UNION ALL SELECT 1) a;
+
+INSERT INTO cart_items (shopping_cart_id, book_id, quantity, is_deleted)
+SELECT sc.id, MOD(sc.id * 5 + a.n, 200) + 1, 1, false
+FROM shopping_carts sc
+CROSS JOIN (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4) a;
+
+ANALYZE TABLE users, shopping_carts, cart_items, categories, books, book_category, orders, order_items;